@@ -0,0 +1,47 @@
+package com.ecommerce.gateway;
+
+/**
+ * One access-log record. Instances are owned by AccessLogRingBuffer and reused, so
+ * they only hold references to strings the request already had.
+ */
+final class AccessLogEntry {
+    String method;
+    String routeId;
+    String path;
+    String userId;
+    int status;
+    long upstreamNanos;
+    long durationNanos;
+    long bytes;
+
+    void appendTo(StringBuilder line) {
+        line.append("method=").append(method)
+            .append(" route=").append(routeId)
+            .append(" path=").append(path)
+            .append(" status=").append(status)
+            .append(" upstream_ms=");
+        appendMillis(line, upstreamNanos);
+        line.append(" duration_ms=");
+        appendMillis(line, durationNanos);
+        line.append(" bytes=").append(bytes)
+            .append(" user=").append(userId == null ? "-" : userId);
+    }
+
+    void clear() {
+        method = null;
+        routeId = null;
+        path = null;
+        userId = null;
+    }
+
+    // Millis with two decimals without going through String.format
+    private static void appendMillis(StringBuilder line, long nanos) {
+        long hundredths = nanos / 10_000;
+        line.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+}
@@ -0,0 +1,180 @@
+package com.ecommerce.gateway;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Structured access log for every request through the gateway.
+ *
+ * Records method, route, path, status, upstream latency (until the response is
+ * committed), total duration, response bytes and X-User-Id to the "gateway.access"
+ * logger, which logback-spring.xml sends to its own non-blocking async appender.
+ *
+ * The event loop only fills a slot in AccessLogRingBuffer; a single writer thread
+ * formats and logs. A full ring drops the entry (gateway.access-log.dropped) rather
+ * than wait. Successful requests are sampled at gateway.access-log.sample-rate;
+ * 5xx responses are always logged.
+ */
+@Component
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("gateway.access");
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final AccessLogRingBuffer buffer;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AccessLogFilter(MeterRegistry meterRegistry,
+                           @Value("${gateway.access-log.enabled:true}") boolean enabled,
+                           @Value("${gateway.access-log.sample-rate:1.0}") double sampleRate,
+                           @Value("${gateway.access-log.buffer-size:8192}") int bufferSize) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.buffer = new AccessLogRingBuffer(bufferSize);
+        this.dropped = Counter.builder("gateway.access-log.dropped")
+            .description("Access-log entries dropped because the ring buffer was full")
+            .register(meterRegistry);
+        this.writer = new Thread(this::drain, "access-log-writer");
+        writer.setDaemon(true);
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!sampled) {
+            // Still timed so a 5xx is logged, but without counting bytes
+            return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is5xxServerError()) {
+                        long duration = System.nanoTime() - start;
+                        record(exchange, status, duration, duration,
+                            exchange.getResponse().getHeaders().getContentLength());
+                    }
+                });
+        }
+
+        MeteredResponse response = new MeteredResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(response).build())
+            .doFinally(signal -> {
+                long end = System.nanoTime();
+                long upstream = response.committedAt == 0 ? end - start : response.committedAt - start;
+                record(exchange, exchange.getResponse().getStatusCode(), upstream, end - start, response.bytes);
+            });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void record(ServerWebExchange exchange, HttpStatusCode status,
+                        long upstreamNanos, long durationNanos, long bytes) {
+        long sequence = buffer.claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        AccessLogEntry entry = buffer.entry(sequence);
+        entry.method = exchange.getRequest().getMethod().name();
+        entry.routeId = route == null ? "-" : route.getId();
+        entry.path = exchange.getRequest().getPath().value();
+        entry.userId = exchange.getRequest().getHeaders().getFirst(USER_ID_HEADER);
+        entry.status = status == null ? 0 : status.value();
+        entry.upstreamNanos = upstreamNanos;
+        entry.durationNanos = durationNanos;
+        entry.bytes = bytes;
+        buffer.publish(sequence);
+    }
+
+    // Writer thread: formats into one reused builder and parks briefly when the ring is empty
+    private void drain() {
+        StringBuilder line = new StringBuilder(256);
+        Consumer<AccessLogEntry> reader = entry -> {
+            line.setLength(0);
+            entry.appendTo(line);
+            entry.clear();
+            accessLogger.info(line.toString());
+        };
+        while (running) {
+            if (!buffer.poll(reader)) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        while (buffer.poll(reader)) {
+            // Flush what was recorded before shutdown
+        }
+    }
+
+    // Counts response bytes and notes when the upstream response was committed
+    private static final class MeteredResponse extends ServerHttpResponseDecorator {
+        private volatile long committedAt;
+        private volatile long bytes;
+
+        MeteredResponse(ServerHttpResponse delegate) {
+            super(delegate);
+            delegate.beforeCommit(() -> {
+                committedAt = System.nanoTime();
+                return Mono.empty();
+            });
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::count));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk).doOnNext(this::count)));
+        }
+
+        private void count(DataBuffer buffer) {
+            // Single writer per response, so a plain read-modify-write is enough
+            bytes += buffer.readableByteCount();
+        }
+    }
+}
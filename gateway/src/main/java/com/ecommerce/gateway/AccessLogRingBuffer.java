@@ -0,0 +1,75 @@
+package com.ecommerce.gateway;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring of preallocated access-log entries.
+ *
+ * Producers (event-loop threads) claim a slot with one CAS on the tail, fill it in
+ * place and publish it by advancing the slot's sequence; a full ring makes claim()
+ * fail instead of waiting. The single writer thread reads slots in order and hands
+ * them back by moving their sequence one lap ahead. Nothing is allocated per entry.
+ */
+final class AccessLogRingBuffer {
+
+    private final AccessLogEntry[] entries;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only read and written by the consumer thread
+    private long head;
+
+    AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.entries = new AccessLogEntry[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new AccessLogEntry();
+            sequences.set(i, i);
+        }
+    }
+
+    // Returns the claimed sequence, or -1 when the ring is full
+    long claim() {
+        while (true) {
+            long position = tail.get();
+            long sequence = sequences.get((int) position & mask);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (difference < 0) {
+                return -1;
+            }
+        }
+    }
+
+    AccessLogEntry entry(long sequence) {
+        return entries[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        sequences.lazySet((int) sequence & mask, sequence + 1);
+    }
+
+    // Consumer side: hands the next published entry to the reader; false when none is ready
+    boolean poll(Consumer<AccessLogEntry> reader) {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return false;
+        }
+        reader.accept(entries[index]);
+        sequences.lazySet(index, head + entries.length);
+        head++;
+        return true;
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+}
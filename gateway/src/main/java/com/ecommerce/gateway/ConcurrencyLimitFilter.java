@@ -0,0 +1,180 @@
+package com.ecommerce.gateway;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Adaptive per-route concurrency limit in front of the downstream services.
+ *
+ * The limit follows observed latency (a gradient limiter): a fast-moving average of
+ * time-to-response is compared with a slow baseline, and the limit shrinks when
+ * requests queue up downstream (latency rises) or fail with 5xx, and grows while
+ * latency stays near the baseline. Requests over the limit get 503 immediately
+ * instead of waiting on a saturated connection pool.
+ *
+ * Runs after ResponseCacheFilter so cache hits neither count nor skew the latency.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.limits.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final LimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(LimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        LimitProperties.RouteLimits routeLimits = route == null ? null : properties.getRoutes().get(route.getId());
+        if (routeLimits == null || routeLimits.getMaxConcurrency() <= 0) {
+            return chain.filter(exchange);
+        }
+
+        AdaptiveLimit limit = limits.computeIfAbsent(route.getId(), id -> new AdaptiveLimit(id, routeLimits));
+        if (!limit.tryAcquire()) {
+            limit.rejected.increment();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return response.setComplete();
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean dropped = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+            limit.release(System.nanoTime() - start, dropped, signal == SignalType.CANCEL);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    private final class AdaptiveLimit {
+        private static final double SHORT_WINDOW = 10;
+        private static final double LONG_WINDOW = 600;
+        private static final double SMOOTHING = 0.2;
+
+        private final String routeId;
+        private final LimitProperties.RouteLimits config;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter rejected;
+
+        // Limit estimate and latency averages; only touched while holding update
+        private final ReentrantLock update = new ReentrantLock();
+        private volatile int limit;
+        private double estimatedLimit;
+        private double shortRttNanos;
+        private double longRttNanos;
+
+        AdaptiveLimit(String routeId, LimitProperties.RouteLimits config) {
+            this.routeId = routeId;
+            this.config = config;
+            this.estimatedLimit = config.getInitialConcurrency();
+            this.limit = config.getInitialConcurrency();
+            this.rejected = Counter.builder("gateway.requests.rejected")
+                .tag("route", routeId)
+                .tag("reason", "overload")
+                .register(meterRegistry);
+            Gauge.builder("gateway.concurrency.limit", this, l -> l.limit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+            Gauge.builder("gateway.concurrency.inflight", inFlight, AtomicInteger::get)
+                .description("Requests waiting on the downstream service")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= limit) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release(long rttNanos, boolean dropped, boolean cancelled) {
+            int inFlightAtCompletion = inFlight.getAndDecrement();
+            // Samples are best effort: skip rather than wait when another response is updating
+            if (cancelled || !update.tryLock()) {
+                return;
+            }
+            try {
+                sample(rttNanos, dropped, inFlightAtCompletion);
+            } finally {
+                update.unlock();
+            }
+        }
+
+        private void sample(long rttNanos, boolean dropped, int inFlightAtCompletion) {
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+                return;
+            }
+            shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+            // Let the baseline follow a lasting drop in latency quickly
+            if (longRttNanos / shortRttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+
+            double newLimit;
+            if (dropped) {
+                newLimit = estimatedLimit * 0.9;
+            } else if (inFlightAtCompletion < estimatedLimit / 2) {
+                // Not using the limit, so latency says nothing about it
+                return;
+            } else {
+                double gradient = Math.max(0.5, Math.min(1.0,
+                    config.getLatencyTolerance() * longRttNanos / shortRttNanos));
+                newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            }
+            newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+            estimatedLimit = Math.max(config.getMinConcurrency(), Math.min(config.getMaxConcurrency(), newLimit));
+
+            int rounded = (int) estimatedLimit;
+            if (rounded != limit) {
+                logger.debug("Concurrency limit changed: route={}, limit={}, shortRttMs={}, longRttMs={}",
+                    routeId, rounded, (long) (shortRttNanos / 1_000_000), (long) (longRttNanos / 1_000_000));
+                limit = rounded;
+            }
+        }
+    }
+}
@@ -2,10 +2,12 @@ package com.ecommerce.gateway;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableConfigurationProperties({ResponseCacheProperties.class, LimitProperties.class})
 public class GatewayApplication {
 
 	public static void main(String[] args) {
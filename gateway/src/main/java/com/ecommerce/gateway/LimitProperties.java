@@ -0,0 +1,114 @@
+package com.ecommerce.gateway;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-route rate and concurrency limits, bound from gateway.limits.
+ *
+ * Routes without an entry are not limited. Rate limits apply per route and
+ * X-User-Id (client address when the header is missing); concurrency limits apply
+ * per route across all users.
+ */
+@ConfigurationProperties(prefix = "gateway.limits")
+public class LimitProperties {
+
+    private boolean enabled = true;
+
+    // Idle per-user buckets are dropped after this long
+    private Duration bucketIdleTimeout = Duration.ofMinutes(10);
+
+    private Map<String, RouteLimits> routes = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getBucketIdleTimeout() {
+        return bucketIdleTimeout;
+    }
+
+    public void setBucketIdleTimeout(Duration bucketIdleTimeout) {
+        this.bucketIdleTimeout = bucketIdleTimeout;
+    }
+
+    public Map<String, RouteLimits> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, RouteLimits> routes) {
+        this.routes = routes;
+    }
+
+    public static class RouteLimits {
+
+        // Sustained requests per second per user; 0 disables rate limiting for the route
+        private double replenishRate = 0;
+
+        // Requests a user may send at once after being idle
+        private int burstCapacity = 1;
+
+        // Concurrent downstream requests; maxConcurrency 0 disables load shedding
+        private int initialConcurrency = 20;
+        private int minConcurrency = 2;
+        private int maxConcurrency = 0;
+
+        // How far short-term latency may rise over the long-term baseline before the limit shrinks
+        private double latencyTolerance = 1.5;
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getInitialConcurrency() {
+            return initialConcurrency;
+        }
+
+        public void setInitialConcurrency(int initialConcurrency) {
+            this.initialConcurrency = initialConcurrency;
+        }
+
+        public int getMinConcurrency() {
+            return minConcurrency;
+        }
+
+        public void setMinConcurrency(int minConcurrency) {
+            this.minConcurrency = minConcurrency;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public double getLatencyTolerance() {
+            return latencyTolerance;
+        }
+
+        public void setLatencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+        }
+    }
+}
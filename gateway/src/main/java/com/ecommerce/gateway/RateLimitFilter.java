@@ -0,0 +1,114 @@
+package com.ecommerce.gateway;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-user token bucket for the routes configured under gateway.limits.routes.
+ *
+ * Each bucket is a single AtomicLong holding the theoretical arrival time of the
+ * next request (GCRA), updated with compare-and-set, so admission never takes a
+ * lock. Rejected requests get 429 with Retry-After before any downstream work.
+ * Runs first so cached responses count against the limit too.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.limits.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final String USER_ID_HEADER = "X-User-Id";
+
+    private final LimitProperties properties;
+    private final Cache<String, AtomicLong> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(LimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+            .expireAfterAccess(properties.getBucketIdleTimeout())
+            .build();
+        Gauge.builder("gateway.rate-limit.buckets", buckets, Cache::estimatedSize)
+            .description("Active per-user token buckets")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        LimitProperties.RouteLimits limits = route == null ? null : properties.getRoutes().get(route.getId());
+        if (limits == null || limits.getReplenishRate() <= 0) {
+            return chain.filter(exchange);
+        }
+
+        AtomicLong bucket = buckets.get(route.getId() + ":" + clientKey(exchange), key -> new AtomicLong());
+        long waitNanos = tryAcquire(bucket, limits);
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+
+        Counter.builder("gateway.requests.rejected")
+            .tag("route", route.getId())
+            .tag("reason", "rate_limit")
+            .register(meterRegistry)
+            .increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+            String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+        return response.setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        return -4;
+    }
+
+    // Returns 0 when a token was taken, otherwise how long until one is available
+    static long tryAcquire(AtomicLong theoreticalArrival, LimitProperties.RouteLimits limits) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / limits.getReplenishRate());
+        long tolerance = interval * Math.max(0, limits.getBurstCapacity() - 1);
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            // A fresh bucket (0) or one idle past its arrival time starts from now
+            long start = current == 0 || current - now < 0 ? now : current;
+            long early = start - now;
+            if (early > tolerance) {
+                return early - tolerance;
+            }
+            if (theoreticalArrival.compareAndSet(current, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    private static String clientKey(ServerWebExchange exchange) {
+        String userId = exchange.getRequest().getHeaders().getFirst(USER_ID_HEADER);
+        if (userId != null && !userId.isBlank()) {
+            return userId;
+        }
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return remote == null ? "anonymous" : remote.getHostString();
+    }
+}
@@ -0,0 +1,376 @@
+package com.ecommerce.gateway;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Caches GET responses for the routes listed under gateway.response-cache.routes.
+ *
+ * - key: route id + raw path + raw query
+ * - bodies live in direct buffers; the cache is bounded by total body bytes (W-TinyLFU)
+ * - TTL per route, shortened by upstream max-age / s-maxage; no-store, no-cache,
+ *   private, Set-Cookie and Vary: * responses are not stored
+ * - If-None-Match against the cached ETag answers 304 without a body
+ * - concurrent misses for one key wait for the first request instead of going upstream,
+ *   for at most coalesce-timeout, and are released as soon as it turns out not storable
+ * - a successful non-GET request on a cached route drops that route's entries and bumps
+ *   its version, so responses read before the write are neither stored nor shared
+ *
+ * Runs before NettyWriteResponseFilter (order -1) so it sees the upstream body as it
+ * is written to the client.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+    private static final String CACHE_NAME = "gateway.responses";
+    private static final List<String> UNCACHED_HEADERS = List.of(
+        HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH,
+        HttpHeaders.DATE, HttpHeaders.SET_COOKIE, "Keep-Alive");
+
+    private final ResponseCacheProperties properties;
+    private final Cache<String, CachedResponse> cache;
+    private final Map<String, Sinks.One<Optional<CachedResponse>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> routeVersions = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaxSize().toBytes())
+            .weigher((String key, CachedResponse response) -> response.weight())
+            .expireAfter(new TtlExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.coalesced = Counter.builder("gateway.response-cache.coalesced")
+            .description("Requests served from another in-flight request's upstream response")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Duration ttl = route == null ? null : properties.getRoutes().get(route.getId());
+        if (ttl == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange).then(Mono.fromRunnable(() -> evictRouteAfterWrite(exchange, route)));
+        }
+        if (hasDirective(request.getHeaders(), "no-cache") || hasDirective(request.getHeaders(), "no-store")) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(route, request);
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return writeCached(exchange, cached, "HIT");
+        }
+
+        Sinks.One<Optional<CachedResponse>> sink = Sinks.one();
+        Sinks.One<Optional<CachedResponse>> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            coalesced.increment();
+            return leader.asMono()
+                // A slow or stuck first request must not hold the others past the timeout
+                .timeout(properties.getCoalesceTimeout(), Mono.just(Optional.empty()))
+                .flatMap(result -> result.isPresent()
+                    ? writeCached(exchange, result.get(), "COALESCED")
+                    : chain.filter(exchange));
+        }
+
+        CachingResponse response = new CachingResponse(exchange.getResponse(), route.getId(), key, ttl, sink);
+        return chain.filter(exchange.mutate().response(response).build())
+            // Anything but a stored response sends the waiting requests upstream themselves
+            .doFinally(signal -> release(key, sink));
+    }
+
+    @Override
+    public int getOrder() {
+        return -2;
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String outcome) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.set("X-Cache", outcome);
+        headers.set(HttpHeaders.AGE, String.valueOf(
+            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - cached.storedAtNanos())));
+
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().contains(cached.headers().getETag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().remaining());
+        // Wraps the shared direct buffer without copying; duplicate() keeps positions independent
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body().duplicate())));
+    }
+
+    private void evictRouteAfterWrite(ServerWebExchange exchange, Route route) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status != null && status.is2xxSuccessful()) {
+            // Bump first: a response already being read is checked against it before and after its put
+            routeVersions.computeIfAbsent(route.getId(), id -> new AtomicLong()).incrementAndGet();
+            String prefix = route.getId() + ":";
+            inFlight.keySet().removeIf(key -> key.startsWith(prefix));
+            cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+            logger.debug("Response cache cleared after write: route={}", route.getId());
+        }
+    }
+
+    private long routeVersion(String routeId) {
+        return routeVersions.computeIfAbsent(routeId, id -> new AtomicLong()).get();
+    }
+
+    private void release(String key, Sinks.One<Optional<CachedResponse>> sink) {
+        inFlight.remove(key, sink);
+        sink.tryEmitValue(Optional.empty());
+    }
+
+    private static String cacheKey(Route route, ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return route.getId() + ":" + request.getURI().getRawPath() + (query == null ? "" : "?" + query);
+    }
+
+    // TTL for the upstream response, or null when it must not be stored
+    private static Duration storableTtl(ServerHttpResponse response, Duration routeTtl) {
+        HttpHeaders headers = response.getHeaders();
+        if (!HttpStatus.OK.equals(response.getStatusCode())
+            || headers.containsKey(HttpHeaders.SET_COOKIE)
+            || headers.getVary().contains("*")
+            || hasDirective(headers, "no-store")
+            || hasDirective(headers, "no-cache")
+            || hasDirective(headers, "private")) {
+            return null;
+        }
+        Long maxAge = directiveSeconds(headers, "s-maxage");
+        if (maxAge == null) {
+            maxAge = directiveSeconds(headers, "max-age");
+        }
+        if (maxAge == null) {
+            return routeTtl;
+        }
+        return maxAge <= 0 ? null : Duration.ofSeconds(Math.min(maxAge, routeTtl.toSeconds()));
+    }
+
+    private static boolean hasDirective(HttpHeaders headers, String directive) {
+        return directives(headers).stream().anyMatch(directive::equals);
+    }
+
+    private static Long directiveSeconds(HttpHeaders headers, String directive) {
+        for (String value : directives(headers)) {
+            if (value.startsWith(directive + "=")) {
+                try {
+                    return Long.parseLong(value.substring(directive.length() + 1).replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return 0L;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<String> directives(HttpHeaders headers) {
+        List<String> directives = new ArrayList<>();
+        for (String header : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : header.split(",")) {
+                directives.add(directive.trim().toLowerCase());
+            }
+        }
+        return directives;
+    }
+
+    // Tees the upstream body to the client and, if the response is storable, into the cache
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+        private final String routeId;
+        private final String key;
+        private final Duration routeTtl;
+        private final Sinks.One<Optional<CachedResponse>> sink;
+        private final long routeVersion;
+
+        CachingResponse(ServerHttpResponse delegate, String routeId, String key, Duration routeTtl,
+                        Sinks.One<Optional<CachedResponse>> sink) {
+            super(delegate);
+            this.routeId = routeId;
+            this.key = key;
+            this.routeTtl = routeTtl;
+            this.sink = sink;
+            this.routeVersion = routeVersion(routeId);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            Duration ttl = storableTtl(getDelegate(), routeTtl);
+            if (ttl == null) {
+                // Waiting requests need not sit through a body that will not be shared
+                release(key, sink);
+                return super.writeWith(body);
+            }
+            getDelegate().getHeaders().set("X-Cache", "MISS");
+
+            BodyCapture capture = new BodyCapture(properties.getMaxEntrySize().toBytes());
+            Flux<? extends DataBuffer> tee = Flux.from(body)
+                .doOnNext(buffer -> {
+                    if (!capture.append(buffer)) {
+                        release(key, sink);
+                    }
+                })
+                .doOnComplete(() -> store(capture, ttl));
+            return super.writeWith(tee);
+        }
+
+        private void store(BodyCapture capture, Duration ttl) {
+            ByteBuffer body = capture.toDirectBuffer();
+            if (body == null || isStale()) {
+                return;
+            }
+            HttpHeaders headers = new HttpHeaders();
+            getDelegate().getHeaders().forEach((name, values) -> {
+                if (UNCACHED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.put(name, values);
+                }
+            });
+            if (headers.getETag() == null) {
+                headers.setETag("\"" + capture.md5Hex() + "\"");
+            }
+            headers.remove("X-Cache");
+
+            CachedResponse cached = new CachedResponse(getDelegate().getStatusCode(),
+                HttpHeaders.readOnlyHttpHeaders(headers), body, ttl.toNanos(), System.nanoTime());
+            cache.put(key, cached);
+            if (isStale()) {
+                // A write evicted the route while this entry was being put
+                cache.asMap().remove(key, cached);
+                return;
+            }
+            inFlight.remove(key, sink);
+            sink.tryEmitValue(Optional.of(cached));
+        }
+
+        // True once a write on the route has landed since this response was requested
+        private boolean isStale() {
+            return routeVersion(routeId) != routeVersion;
+        }
+    }
+
+    // Heap copy of the body chunks while they stream; dropped once maxBytes is exceeded
+    private static final class BodyCapture {
+        private final long maxBytes;
+        private final List<byte[]> chunks = new ArrayList<>();
+        private long size;
+        private boolean overflow;
+
+        BodyCapture(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        // False once the body has grown past maxBytes
+        boolean append(DataBuffer buffer) {
+            int length = buffer.readableByteCount();
+            if (overflow || size + length > maxBytes) {
+                overflow = true;
+                chunks.clear();
+                return false;
+            }
+            byte[] chunk = new byte[length];
+            // Copies without moving the read position the client write depends on
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(chunk), 0, length);
+            chunks.add(chunk);
+            size += length;
+            return true;
+        }
+
+        ByteBuffer toDirectBuffer() {
+            if (overflow) {
+                return null;
+            }
+            ByteBuffer direct = ByteBuffer.allocateDirect((int) size);
+            chunks.forEach(direct::put);
+            return direct.flip().asReadOnlyBuffer();
+        }
+
+        String md5Hex() {
+            byte[] all = new byte[(int) size];
+            int offset = 0;
+            for (byte[] chunk : chunks) {
+                System.arraycopy(chunk, 0, all, offset, chunk.length);
+                offset += chunk.length;
+            }
+            return DigestUtils.md5DigestAsHex(all);
+        }
+    }
+
+    private record CachedResponse(HttpStatusCode status,
+                                  HttpHeaders headers,
+                                  ByteBuffer body,
+                                  long ttlNanos,
+                                  long storedAtNanos) {
+
+        // Off-heap body plus a rough allowance for the headers and entry object
+        int weight() {
+            return body.capacity() + 512;
+        }
+    }
+
+    private static final class TtlExpiry implements Expiry<String, CachedResponse> {
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
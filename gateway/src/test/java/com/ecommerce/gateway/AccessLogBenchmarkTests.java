@@ -0,0 +1,116 @@
+package com.ecommerce.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Measures the per-request latency AccessLogFilter adds on the request path.
+ *
+ * Drives the filter from several threads (standing in for event-loop threads) with
+ * an in-memory downstream that answers immediately, once with the access log
+ * disabled and once enabled at a 100% sample rate, and logs p50/p99/p999 for each.
+ *
+ * Opt-in: mvn test -Dbenchmark=true -Dtest=AccessLogBenchmarkTests
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AccessLogBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogBenchmarkTests.class);
+    private static final int THREADS = 4;
+    private static final int WARMUP_REQUESTS = 20_000;
+    private static final int REQUESTS_PER_THREAD = 100_000;
+    private static final byte[] BODY = "{\"id\":1,\"name\":\"Laptop\",\"price\":999.99}".getBytes(StandardCharsets.UTF_8);
+
+    private final Route route = Route.async()
+        .id("product-service")
+        .uri(URI.create("http://localhost:8081"))
+        .predicate(exchange -> true)
+        .build();
+
+    private final GatewayFilterChain downstream = exchange -> {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY)));
+    };
+
+    @Test
+    void accessLogKeepsP99Flat() throws Exception {
+        long[] disabled = run(new AccessLogFilter(new SimpleMeterRegistry(), false, 1.0, 8192));
+        AccessLogFilter enabledFilter = new AccessLogFilter(new SimpleMeterRegistry(), true, 1.0, 8192);
+        long[] enabled = run(enabledFilter);
+        enabledFilter.shutdown();
+
+        report("disabled", disabled);
+        report("enabled", enabled);
+        // Logging must not add more than a millisecond at the tail
+        assertThat(percentile(enabled, 0.99)).isLessThan(percentile(disabled, 0.99) + 1_000_000);
+    }
+
+    private long[] run(AccessLogFilter filter) throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            filter.filter(exchange(i), downstream).block();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                long[] latencies = new long[REQUESTS_PER_THREAD];
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    MockServerWebExchange exchange = exchange(i);
+                    long start = System.nanoTime();
+                    filter.filter(exchange, downstream).block();
+                    latencies[i] = System.nanoTime() - start;
+                }
+                return latencies;
+            }));
+        }
+
+        long[] all = new long[THREADS * REQUESTS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            System.arraycopy(results.get(t).get(), 0, all, t * REQUESTS_PER_THREAD, REQUESTS_PER_THREAD);
+        }
+        executor.shutdown();
+        Arrays.sort(all);
+        return all;
+    }
+
+    private MockServerWebExchange exchange(int i) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/products/" + (i % 1000)).header("X-User-Id", "user-" + (i % 100)));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))];
+    }
+
+    private static void report(String mode, long[] sorted) {
+        logger.info("accessLog={} requests={} p50={}us p99={}us p999={}us",
+            mode, sorted.length, percentile(sorted, 0.50) / 1_000,
+            percentile(sorted, 0.99) / 1_000, percentile(sorted, 0.999) / 1_000);
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Creates the users and products the scenarios work with, straight against the
+ * services (not through the gateway) so seeding is neither rate-limited nor
+ * counted in the report. Request bodies follow the README examples.
+ */
+class DataSeeder {
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    DataSeeder(HttpClient client) {
+        this.client = client;
+    }
+
+    // Stock is large enough that checkouts never run a product out
+    long[] seedProducts(String productUrl, int count) throws IOException, InterruptedException {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            String keyword = Shopper.KEYWORDS.get(i % Shopper.KEYWORDS.size());
+            Map<String, Object> product = Map.of(
+                "name", Character.toUpperCase(keyword.charAt(0)) + keyword.substring(1) + " " + (1000 + i),
+                "description", "Load-test " + keyword,
+                "price", 10 + (i % 990) + 0.99,
+                "quantity", 1_000_000,
+                "category", keyword);
+            JsonNode created = objectMapper.readTree(post(productUrl + "/api/products", product));
+            ids[i] = created.get("id").asLong();
+        }
+        return ids;
+    }
+
+    List<String> seedUsers(String userUrl, int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> user = Map.of(
+                "firstName", "Load",
+                "lastName", "Tester " + i,
+                "email", "loadtest-" + i + "@example.com",
+                "phone", String.format("555%07d", i));
+            post(userUrl + "/api/users", user);
+        }
+
+        // Creating a user does not return its id
+        List<String> ids = new ArrayList<>();
+        for (String line : get(userUrl + "/api/users/stream").split("\n")) {
+            if (!line.isBlank()) {
+                ids.add(objectMapper.readTree(line).get("id").asText());
+            }
+        }
+        return ids;
+    }
+
+    private String post(String url, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+            .build();
+        return check(url, client.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private String get(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        return check(url, client.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private static String check(String url, HttpResponse<String> response) {
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Seeding failed: " + url + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+}
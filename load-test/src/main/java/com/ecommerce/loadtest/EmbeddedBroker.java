@@ -0,0 +1,44 @@
+package com.ecommerce.loadtest;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+
+/**
+ * In-memory AMQP 0-9-1 broker (Qpid Broker-J) standing in for RabbitMQ.
+ *
+ * Spring AMQP talks to it with the regular RabbitMQ client; one virtual host,
+ * guest/guest, nothing persisted.
+ */
+class EmbeddedBroker implements AutoCloseable {
+    private final SystemLauncher launcher = new SystemLauncher();
+    private final int port;
+
+    EmbeddedBroker(int port) {
+        this.port = port;
+    }
+
+    void start() throws Exception {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SystemConfig.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION,
+            EmbeddedBroker.class.getResource("/qpid-broker.json").toExternalForm());
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(SystemConfig.CONTEXT, Map.of(
+            "qpid.amqp_port", String.valueOf(port),
+            "qpid.work_dir", Path.of("target", "qpid-work").toAbsolutePath().toString()));
+        launcher.startup(attributes);
+    }
+
+    int getPort() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        launcher.shutdown();
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Per-endpoint latency (HdrHistogram, microseconds) and error counts.
+ *
+ * Recording is lock-free, so workers never wait on each other here. Any status
+ * outside 2xx, and any I/O failure, counts as an error; errors are still timed.
+ */
+class LatencyRecorder {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.latency.recordValue(Math.max(1, nanos / 1_000));
+        if (status < 200 || status >= 300) {
+            stats.errors.increment();
+        }
+    }
+
+    // Drops everything recorded so far (end of warm-up)
+    void reset() {
+        endpoints.values().forEach(Endpoint::reset);
+    }
+
+    List<Row> snapshot(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        List<Row> rows = new ArrayList<>();
+        Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+        long totalErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram histogram = entry.getValue().latency.getIntervalHistogram();
+            long errors = entry.getValue().errors.sum();
+            rows.add(Row.of(entry.getKey(), histogram, errors, seconds));
+            total.add(histogram);
+            totalErrors += errors;
+        }
+        rows.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+        rows.add(Row.of("TOTAL", total, totalErrors, seconds));
+        return rows;
+    }
+
+    static void print(List<Row> rows, PrintStream out) {
+        out.printf("%-26s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Row row : rows) {
+            out.printf(Locale.ROOT, "%-26s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                row.endpoint(), row.requests(), row.errors(), row.throughput(),
+                row.p50(), row.p90(), row.p99(), row.p999(), row.max());
+        }
+    }
+
+    static void writeCsv(List<Row> rows, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("endpoint,requests,errors,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+            for (Row row : rows) {
+                writer.write(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    row.endpoint(), row.requests(), row.errors(), row.throughput(),
+                    row.p50(), row.p90(), row.p99(), row.p999(), row.max()));
+            }
+        }
+    }
+
+    record Row(String endpoint, long requests, long errors, double throughput,
+               double p50, double p90, double p99, double p999, double max) {
+
+        static Row of(String endpoint, Histogram histogram, long errors, double seconds) {
+            return new Row(endpoint, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1_000.0;
+        }
+    }
+
+    private static final class Endpoint {
+        private final Recorder latency = new Recorder(SIGNIFICANT_DIGITS);
+        private final LongAdder errors = new LongAdder();
+
+        private void reset() {
+            latency.reset();
+            errors.reset();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * End-to-end load test without docker-compose.
+ *
+ * Starts gateway, order, product, user and notification services in this JVM
+ * with local stand-ins for their infrastructure (LocalStack), seeds users and
+ * products, drives the scripted scenarios through the gateway at the configured
+ * concurrency, and prints throughput and latency percentiles per endpoint.
+ *
+ * Install the services first (mvn install -DskipTests in each of gateway, order,
+ * product, user and notification), then from load-test:
+ *   mvn compile exec:java -Dloadtest.concurrency=100 -Dloadtest.duration=2m
+ * See LoadTestProperties for all settings.
+ */
+public class LoadTestApplication {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestApplication.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestProperties properties = LoadTestProperties.fromSystemProperties();
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+        try (LocalStack stack = new LocalStack(properties)) {
+            stack.start();
+
+            DataSeeder seeder = new DataSeeder(client);
+            long[] productIds = seeder.seedProducts(stack.getProductUrl(), properties.getProducts());
+            List<String> userIds = seeder.seedUsers(stack.getUserUrl(), properties.getUsers());
+            logger.info("Seeded {} products and {} users", productIds.length, userIds.size());
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            List<Shopper> shoppers = new ArrayList<>();
+            for (int i = 0; i < properties.getConcurrency(); i++) {
+                String userId = userIds.get(i % userIds.size());
+                shoppers.add(new Shopper(client, stack.getGatewayUrl(), userId, productIds, recorder));
+            }
+
+            Duration elapsed = new ScenarioRunner(properties.getMix())
+                .run(shoppers, properties.getWarmup(), properties.getDuration(), recorder);
+
+            List<LatencyRecorder.Row> rows = recorder.snapshot(elapsed);
+            System.out.printf("%nconcurrency=%d duration=%ds mix=%s gateway-limits=%s%n%n",
+                properties.getConcurrency(), elapsed.toSeconds(), properties.getMix(), properties.isGatewayLimits());
+            LatencyRecorder.print(rows, System.out);
+            LatencyRecorder.writeCsv(rows, properties.getReport());
+            logger.info("Report written to {}", properties.getReport().toAbsolutePath());
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Load-test settings, read from -Dloadtest.* system properties.
+ *
+ * - concurrency: virtual users, each running scenarios back to back (default 50)
+ * - duration / warmup: measured run and discarded warm-up (default 60s / 15s)
+ * - users / products: seeded before the run (default 100 / 1000)
+ * - mix: scenario weights, e.g. browse=50,search=25,add-to-cart=15,checkout=10
+ * - gateway-limits: keep the gateway rate and concurrency limits on (default false)
+ * - mongodb-uri: use this MongoDB instead of starting an embedded one
+ * - project-dir: repository root, for the service and config-server yaml files (default ..)
+ * - report: CSV written after the run (default target/load-test-report.csv)
+ */
+class LoadTestProperties {
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int users;
+    private final int products;
+    private final Map<Scenario, Integer> mix;
+    private final boolean gatewayLimits;
+    private final String mongodbUri;
+    private final Path projectDir;
+    private final Path report;
+
+    LoadTestProperties(int concurrency, Duration duration, Duration warmup, int users, int products,
+                       Map<Scenario, Integer> mix, boolean gatewayLimits, String mongodbUri,
+                       Path projectDir, Path report) {
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.users = users;
+        this.products = products;
+        this.mix = mix;
+        this.gatewayLimits = gatewayLimits;
+        this.mongodbUri = mongodbUri;
+        this.projectDir = projectDir;
+        this.report = report;
+    }
+
+    static LoadTestProperties fromSystemProperties() {
+        return new LoadTestProperties(
+            Integer.getInteger("loadtest.concurrency", 50),
+            duration("loadtest.duration", "60s"),
+            duration("loadtest.warmup", "15s"),
+            Integer.getInteger("loadtest.users", 100),
+            Integer.getInteger("loadtest.products", 1000),
+            parseMix(System.getProperty("loadtest.mix", "browse=50,search=25,add-to-cart=15,checkout=10")),
+            Boolean.getBoolean("loadtest.gateway-limits"),
+            System.getProperty("loadtest.mongodb-uri", ""),
+            Path.of(System.getProperty("loadtest.project-dir", "..")).toAbsolutePath().normalize(),
+            Path.of(System.getProperty("loadtest.report", "target/load-test-report.csv")));
+    }
+
+    static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Scenario.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no scenario with a positive weight");
+        }
+        return mix;
+    }
+
+    private static Duration duration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(name, defaultValue));
+    }
+
+    int getConcurrency() {
+        return concurrency;
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    Duration getWarmup() {
+        return warmup;
+    }
+
+    int getUsers() {
+        return users;
+    }
+
+    int getProducts() {
+        return products;
+    }
+
+    Map<Scenario, Integer> getMix() {
+        return mix;
+    }
+
+    boolean isGatewayLimits() {
+        return gatewayLimits;
+    }
+
+    String getMongodbUri() {
+        return mongodbUri;
+    }
+
+    Path getProjectDir() {
+        return projectDir;
+    }
+
+    Path getReport() {
+        return report;
+    }
+}
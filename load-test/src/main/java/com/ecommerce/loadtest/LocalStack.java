@@ -0,0 +1,202 @@
+package com.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ecommerce.gateway.GatewayApplication;
+import com.ecommerce.notification.NotificationServiceApplication;
+import com.ecommerce.order.OrderApplication;
+import com.ecommerce.product.ProductApplication;
+import com.ecommerce.user.UserApplication;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+/**
+ * Starts the whole system in this JVM on random ports.
+ *
+ * Infrastructure stand-ins:
+ * - Postgres: one in-memory H2 database per service
+ * - MongoDB: embedded mongod (flapdoodle), unless loadtest.mongodb-uri is set
+ * - RabbitMQ: embedded Qpid broker (EmbeddedBroker)
+ * - Eureka and config-server: each service reads its yaml from config-server's source
+ *   folder and finds the others through static simple-discovery instances
+ *
+ * Every service runs its real configuration; only connection settings, ports, SQL
+ * echo and tracing export are overridden.
+ */
+class LocalStack implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LocalStack.class);
+
+    // Auto-configurations that every service would otherwise pick up from the shared classpath
+    private static final String MONGO = String.join(",",
+        "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration",
+        "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration",
+        "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration");
+    private static final String JPA = String.join(",",
+        "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+        "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration");
+    private static final String RABBIT = "org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration";
+
+    private final LoadTestProperties properties;
+    private final Deque<AutoCloseable> running = new ArrayDeque<>();
+
+    private String userUrl;
+    private String productUrl;
+    private String gatewayUrl;
+
+    LocalStack(LoadTestProperties properties) {
+        this.properties = properties;
+    }
+
+    void start() throws Exception {
+        // The services' logging setup would otherwise reset logback once per context
+        System.setProperty("org.springframework.boot.logging.LoggingSystem", "none");
+
+        EmbeddedBroker broker = new EmbeddedBroker(freePort());
+        broker.start();
+        running.push(broker);
+        logger.info("AMQP broker on port {}", broker.getPort());
+
+        String mongodbUri = properties.getMongodbUri();
+        if (mongodbUri.isEmpty()) {
+            TransitionWalker.ReachedState<RunningMongodProcess> mongod = Mongod.instance().start(Version.Main.V7_0);
+            running.push(mongod::close);
+            ServerAddress address = mongod.current().getServerAddress();
+            mongodbUri = "mongodb://" + address.getHost() + ":" + address.getPort() + "/ecom_user";
+        }
+        logger.info("MongoDB at {}", mongodbUri);
+
+        userUrl = start("user-service", "user", UserApplication.class, WebApplicationType.SERVLET,
+            List.of(
+                "--spring.data.mongodb.uri=" + mongodbUri,
+                "--spring.autoconfigure.exclude=" + String.join(",", JPA, RABBIT)));
+
+        productUrl = start("product-service", "product", ProductApplication.class, WebApplicationType.SERVLET,
+            concat(h2("product"), List.of(
+                "--spring.autoconfigure.exclude=" + String.join(",", MONGO, RABBIT))));
+
+        start("notification-service", "notification", NotificationServiceApplication.class,
+            WebApplicationType.SERVLET,
+            concat(rabbit(broker), List.of(
+                "--spring.autoconfigure.exclude=" + String.join(",", MONGO, JPA))));
+
+        String orderUrl = start("order-service", "order", OrderApplication.class, WebApplicationType.SERVLET,
+            concat(h2("order"), rabbit(broker), List.of(
+                "--spring.autoconfigure.exclude=" + MONGO,
+                instance("user-service", userUrl),
+                instance("product-service", productUrl))));
+
+        gatewayUrl = start("gateway-service", "gateway", GatewayApplication.class, WebApplicationType.REACTIVE,
+            List.of(
+                "--spring.autoconfigure.exclude=" + String.join(",", MONGO, JPA, RABBIT),
+                "--gateway.limits.enabled=" + properties.isGatewayLimits(),
+                instance("user-service", userUrl),
+                instance("product-service", productUrl),
+                instance("order-service", orderUrl)));
+    }
+
+    String getGatewayUrl() {
+        return gatewayUrl;
+    }
+
+    String getUserUrl() {
+        return userUrl;
+    }
+
+    String getProductUrl() {
+        return productUrl;
+    }
+
+    private String start(String name, String module, Class<?> application, WebApplicationType type,
+                         List<String> overrides) {
+        Path projectDir = properties.getProjectDir();
+        String location = "optional:file:" + projectDir.resolve(module + "/src/main/resources/application.yaml")
+            + ",optional:file:" + projectDir.resolve("config-server/src/main/resources/config/" + name + ".yaml");
+
+        // Command-line arguments outrank the yaml files
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.config.location=" + location,
+            "--spring.cloud.config.enabled=false",
+            "--eureka.client.enabled=false",
+            "--server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--management.tracing.enabled=false"));
+        if (type == WebApplicationType.SERVLET) {
+            // Gateway classes are on the classpath too; keep them out of the MVC services
+            args.add("--spring.cloud.gateway.enabled=false");
+        }
+        args.addAll(overrides);
+
+        long started = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(application)
+            .web(type)
+            .logStartupInfo(false)
+            .run(args.toArray(String[]::new));
+        running.push(context);
+
+        String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        logger.info("{} started at {} in {} ms", name, url, (System.nanoTime() - started) / 1_000_000);
+        return url;
+    }
+
+    private static List<String> h2(String database) {
+        return List.of(
+            "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+    }
+
+    private static List<String> rabbit(EmbeddedBroker broker) {
+        return List.of(
+            "--spring.rabbitmq.host=localhost",
+            "--spring.rabbitmq.port=" + broker.getPort());
+    }
+
+    private static String instance(String serviceId, String url) {
+        return "--spring.cloud.discovery.client.simple.instances." + serviceId + "[0].uri=" + url;
+    }
+
+    @SafeVarargs
+    private static List<String> concat(List<String>... lists) {
+        List<String> all = new ArrayList<>();
+        for (List<String> list : lists) {
+            all.addAll(list);
+        }
+        return all;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // Gateway first, infrastructure last
+    @Override
+    public void close() {
+        while (!running.isEmpty()) {
+            try {
+                running.pop().close();
+            } catch (Exception e) {
+                logger.warn("Shutdown failed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Scripted shopper journeys, built from the README curl examples and sent
+ * through the gateway like a real client.
+ */
+enum Scenario {
+    // First catalog page, then one product from it
+    BROWSE("browse") {
+        @Override
+        void run(Shopper shopper) {
+            shopper.browsePage();
+            shopper.viewProduct(shopper.randomProductId());
+        }
+    },
+    // Keyword search over product names
+    SEARCH("search") {
+        @Override
+        void run(Shopper shopper) {
+            shopper.search(Shopper.randomKeyword());
+        }
+    },
+    // Add an item, then look at the cart
+    ADD_TO_CART("add-to-cart") {
+        @Override
+        void run(Shopper shopper) {
+            shopper.addToCart(shopper.randomProductId(), 1);
+            shopper.viewCart();
+        }
+    },
+    // Fill a cart with 1-3 items and place the order
+    CHECKOUT("checkout") {
+        @Override
+        void run(Shopper shopper) {
+            int items = 1 + ThreadLocalRandom.current().nextInt(3);
+            for (int i = 0; i < items; i++) {
+                shopper.addToCart(shopper.randomProductId(), 1 + ThreadLocalRandom.current().nextInt(2));
+            }
+            shopper.checkout();
+        }
+    };
+
+    private final String name;
+
+    Scenario(String name) {
+        this.name = name;
+    }
+
+    abstract void run(Shopper shopper);
+
+    String getName() {
+        return name;
+    }
+
+    static Scenario fromName(String name) {
+        return Arrays.stream(values())
+            .filter(scenario -> scenario.name.equals(name))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown scenario: " + name));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Closed-loop driver: each virtual user (a virtual thread) picks a scenario by
+ * weight, runs it, and starts the next one immediately. Latencies recorded during
+ * warm-up are discarded.
+ */
+class ScenarioRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioRunner.class);
+
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private volatile boolean running;
+
+    ScenarioRunner(Map<Scenario, Integer> mix) {
+        scenarios = mix.keySet().toArray(Scenario[]::new);
+        cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += mix.get(scenarios[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    // Returns the length of the measured window
+    Duration run(List<Shopper> shoppers, Duration warmup, Duration duration, LatencyRecorder recorder)
+            throws Exception {
+        running = true;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (Shopper shopper : shoppers) {
+                workers.add(executor.submit(() -> loop(shopper)));
+            }
+
+            logger.info("Warming up for {}s with {} virtual users", warmup.toSeconds(), shoppers.size());
+            Thread.sleep(warmup);
+            recorder.reset();
+
+            logger.info("Measuring for {}s", duration.toSeconds());
+            long start = System.nanoTime();
+            Thread.sleep(duration);
+            running = false;
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return elapsed;
+        } finally {
+            running = false;
+        }
+    }
+
+    private void loop(Shopper shopper) {
+        while (running) {
+            try {
+                pick().run(shopper);
+            } catch (RuntimeException e) {
+                logger.debug("Scenario failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Scenario pick() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+}
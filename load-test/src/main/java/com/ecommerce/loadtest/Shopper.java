@@ -0,0 +1,99 @@
+package com.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One virtual user: a seeded user id and the gateway requests the scenarios send.
+ *
+ * Each request is timed from send to fully read body and recorded under its
+ * endpoint template, so /api/products/1 and /api/products/2 share a row.
+ */
+class Shopper {
+    static final List<String> KEYWORDS = List.of(
+        "laptop", "phone", "headphones", "camera", "monitor", "keyboard", "mouse", "tablet", "speaker", "watch");
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String gatewayUrl;
+    private final String userId;
+    private final long[] productIds;
+    private final LatencyRecorder recorder;
+
+    Shopper(HttpClient client, String gatewayUrl, String userId, long[] productIds, LatencyRecorder recorder) {
+        this.client = client;
+        this.gatewayUrl = gatewayUrl;
+        this.userId = userId;
+        this.productIds = productIds;
+        this.recorder = recorder;
+    }
+
+    void browsePage() {
+        send("GET /api/products/page", get("/api/products/page?size=20"));
+    }
+
+    void viewProduct(long productId) {
+        send("GET /api/products/{id}", get("/api/products/" + productId));
+    }
+
+    void search(String keyword) {
+        send("GET /api/products/search", get("/api/products/search?keyword=" + keyword + "&size=20"));
+    }
+
+    void addToCart(long productId, int quantity) {
+        String body = "{\"productId\":" + productId + ",\"quantity\":" + quantity + "}";
+        send("POST /api/cart", request("/api/cart")
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build());
+    }
+
+    void viewCart() {
+        send("GET /api/cart", get("/api/cart"));
+    }
+
+    void checkout() {
+        send("POST /api/orders", request("/api/orders")
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build());
+    }
+
+    long randomProductId() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+
+    static String randomKeyword() {
+        return KEYWORDS.get(ThreadLocalRandom.current().nextInt(KEYWORDS.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+            .timeout(TIMEOUT)
+            .header("X-User-Id", userId);
+    }
+
+    private void send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.record(endpoint, System.nanoTime() - start, status);
+    }
+}
@@ -2,8 +2,12 @@ package com.ecommerce.notification;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+import com.ecommerce.notification.config.NotificationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties(NotificationProperties.class)
 public class NotificationServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(NotificationServiceApplication.class, args);
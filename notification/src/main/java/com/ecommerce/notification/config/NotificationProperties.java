@@ -0,0 +1,85 @@
+package com.ecommerce.notification.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Dispatch settings for NotificationDispatcher, bound from notification.
+ *
+ * Channels are keyed by name (email, sms, invoice); a channel without an entry
+ * runs with the defaults below.
+ */
+@ConfigurationProperties(prefix = "notification")
+public class NotificationProperties {
+
+    // How long the listener thread waits for all channels of one event
+    private Duration dispatchTimeout = Duration.ofSeconds(30);
+
+    private Map<String, ChannelSettings> channels = new LinkedHashMap<>();
+
+    public Duration getDispatchTimeout() {
+        return dispatchTimeout;
+    }
+
+    public void setDispatchTimeout(Duration dispatchTimeout) {
+        this.dispatchTimeout = dispatchTimeout;
+    }
+
+    public Map<String, ChannelSettings> getChannels() {
+        return channels;
+    }
+
+    public void setChannels(Map<String, ChannelSettings> channels) {
+        this.channels = channels;
+    }
+
+    public ChannelSettings channel(String name) {
+        return channels.getOrDefault(name, new ChannelSettings());
+    }
+
+    public static class ChannelSettings {
+
+        // Executor threads; when all are busy and the queue is full the listener thread runs the task
+        private int threads = 4;
+        private int queueCapacity = 100;
+
+        // Attempts per event, with exponential backoff starting at backoff and capped at ten times it
+        private int maxAttempts = 3;
+        private Duration backoff = Duration.ofMillis(200);
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getBackoff() {
+            return backoff;
+        }
+
+        public void setBackoff(Duration backoff) {
+            this.backoff = backoff;
+        }
+    }
+}
@@ -15,6 +15,11 @@ public class RabbitMQConfig {
     public static final String NOTIFICATION_QUEUE = "notification.queue";
     public static final String ORDER_CREATED_ROUTING_KEY = "order.created";
     
+    // Dead-letter exchange and queue for notifications that failed after retries: one copy
+    // per failed channel (NotificationDeadLetters), or the whole event when the listener rejects it
+    public static final String NOTIFICATION_DLX = "notification.dlx";
+    public static final String NOTIFICATION_DLQ = "notification.dlq";
+    
     @Bean
     public TopicExchange orderExchange() {
         return new TopicExchange(ORDER_EXCHANGE);
@@ -22,7 +27,10 @@ public class RabbitMQConfig {
     
     @Bean
     public Queue notificationQueue() {
-        return QueueBuilder.durable(NOTIFICATION_QUEUE).build();
+        return QueueBuilder.durable(NOTIFICATION_QUEUE)
+            .deadLetterExchange(NOTIFICATION_DLX)
+            .deadLetterRoutingKey(NOTIFICATION_DLQ)
+            .build();
     }
     
     @Bean
@@ -33,6 +41,24 @@ public class RabbitMQConfig {
             .with(ORDER_CREATED_ROUTING_KEY);
     }
     
+    @Bean
+    public DirectExchange notificationDeadLetterExchange() {
+        return new DirectExchange(NOTIFICATION_DLX);
+    }
+    
+    @Bean
+    public Queue notificationDeadLetterQueue() {
+        return QueueBuilder.durable(NOTIFICATION_DLQ).build();
+    }
+    
+    @Bean
+    public Binding notificationDeadLetterBinding() {
+        return BindingBuilder
+            .bind(notificationDeadLetterQueue())
+            .to(notificationDeadLetterExchange())
+            .with(NOTIFICATION_DLQ);
+    }
+    
     @Bean
     public MessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -44,4 +70,4 @@ public class RabbitMQConfig {
         template.setMessageConverter(messageConverter());
         return template;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.notification.consumer;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import lombok.RequiredArgsConstructor;
+
+import com.ecommerce.notification.config.RabbitMQConfig;
+import com.ecommerce.notification.dto.OrderCreatedEvent;
+
+/**
+ * Dead-letters one channel of an order event to notification.dlq.
+ *
+ * The copy carries the failed channel in the x-notification-channel header. Moved
+ * back to notification.queue, it is delivered on that channel only, so a replay
+ * never repeats the channels that already succeeded.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationDeadLetters {
+    public static final String CHANNEL_HEADER = "x-notification-channel";
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public void deadLetter(OrderCreatedEvent event, String channel) {
+        rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_DLX, RabbitMQConfig.NOTIFICATION_DLQ, event,
+            message -> {
+                message.getMessageProperties().setHeader(CHANNEL_HEADER, channel);
+                return message;
+            });
+    }
+}
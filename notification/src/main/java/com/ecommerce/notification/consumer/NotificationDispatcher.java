@@ -0,0 +1,140 @@
+package com.ecommerce.notification.consumer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.notification.config.NotificationProperties;
+import com.ecommerce.notification.config.NotificationProperties.ChannelSettings;
+import com.ecommerce.notification.dto.OrderCreatedEvent;
+import com.ecommerce.notification.service.NotificationService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans an order event out to the email, SMS and invoice channels in parallel.
+ *
+ * Each channel has its own bounded executor and retry policy, configured under
+ * notification.channels.{email|sms|invoice} (see NotificationProperties). When a
+ * channel's queue is full the listener thread runs the task itself, which slows
+ * consumption instead of buffering without bound. Channels that still fail after
+ * their retries, or do not finish within the dispatch timeout, are returned to the
+ * caller, which dead-letters each of them on its own (see NotificationDeadLetters).
+ */
+@Component
+public class NotificationDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final List<Channel> channels;
+    private final Duration timeout;
+
+    public NotificationDispatcher(NotificationService notificationService, NotificationProperties properties) {
+        this.channels = List.of(
+            channel("email", notificationService::sendOrderConfirmationEmail, properties),
+            channel("sms", notificationService::sendOrderConfirmationSMS, properties),
+            channel("invoice", notificationService::generateInvoice, properties));
+        this.timeout = properties.getDispatchTimeout();
+    }
+
+    // Blocks the listener thread until every channel is done, so the message is acked only
+    // then. Returns the names of the channels that failed
+    public List<String> dispatch(OrderCreatedEvent event) {
+        return deliver(event, channels);
+    }
+
+    // Delivers a dead-lettered channel again, and only that one
+    public List<String> dispatch(OrderCreatedEvent event, String channelName) {
+        Channel channel = channels.stream()
+            .filter(candidate -> candidate.name().equals(channelName))
+            .findFirst()
+            .orElseThrow(() -> new AmqpRejectAndDontRequeueException(
+                "Unknown notification channel '" + channelName + "' for orderId=" + event.getOrderId()));
+        return deliver(event, List.of(channel));
+    }
+
+    private List<String> deliver(OrderCreatedEvent event, List<Channel> targets) {
+        Map<String, Future<?>> deliveries = new LinkedHashMap<>();
+        targets.forEach(channel -> deliveries.put(channel.name(), channel.executor().submit(() -> channel.deliver(event))));
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<String> failed = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Future<?>> delivery : deliveries.entrySet()) {
+                try {
+                    delivery.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    logger.error("{} notification failed: orderId={}, error={}",
+                        delivery.getKey(), event.getOrderId(), e.getCause().getMessage());
+                    failed.add(delivery.getKey());
+                } catch (TimeoutException e) {
+                    // Interrupts the attempt or backoff still running, so it cannot finish after the dead letter
+                    delivery.getValue().cancel(true);
+                    logger.error("{} notification timed out: orderId={}, timeout={}",
+                        delivery.getKey(), event.getOrderId(), timeout);
+                    failed.add(delivery.getKey());
+                }
+            }
+        } catch (InterruptedException e) {
+            deliveries.values().forEach(delivery -> delivery.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new AmqpRejectAndDontRequeueException(
+                "Notification interrupted for orderId=" + event.getOrderId(), e);
+        }
+        return failed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.forEach(channel -> channel.executor().shutdown());
+    }
+
+    private static Channel channel(String name, Consumer<OrderCreatedEvent> action, NotificationProperties properties) {
+        ChannelSettings settings = properties.channel(name);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            settings.getThreads(), settings.getThreads(), 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+            new CustomizableThreadFactory("notify-" + name + "-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+        long backoffMillis = settings.getBackoff().toMillis();
+        RetryTemplate retryTemplate = RetryTemplate.builder()
+            .maxAttempts(settings.getMaxAttempts())
+            .exponentialBackoff(backoffMillis, 2.0, backoffMillis * 10)
+            .build();
+
+        return new Channel(name, action, executor, retryTemplate);
+    }
+
+    private record Channel(String name,
+                           Consumer<OrderCreatedEvent> action,
+                           ThreadPoolExecutor executor,
+                           RetryTemplate retryTemplate) {
+
+        void deliver(OrderCreatedEvent event) {
+            retryTemplate.execute(context -> {
+                if (context.getRetryCount() > 0) {
+                    logger.warn("Retrying {} notification: orderId={}, attempt={}",
+                        name, event.getOrderId(), context.getRetryCount() + 1);
+                }
+                action.accept(event);
+                return null;
+            });
+        }
+    }
+}
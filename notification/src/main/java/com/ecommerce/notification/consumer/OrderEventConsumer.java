@@ -1,37 +1,44 @@
 package com.ecommerce.notification.consumer;
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 import lombok.RequiredArgsConstructor;
 
 import com.ecommerce.notification.config.RabbitMQConfig;
 import com.ecommerce.notification.dto.OrderCreatedEvent;
-import com.ecommerce.notification.service.NotificationService;
 
 @Component
 @RequiredArgsConstructor
 public class OrderEventConsumer {
     private static final Logger logger = LoggerFactory.getLogger(OrderEventConsumer.class);
-    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationDeadLetters notificationDeadLetters;
     
+    // Listener concurrency and prefetch come from spring.rabbitmq.listener.simple.*.
+    // A replayed dead letter names its channel in the header
     @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE)
-    public void handleOrderCreated(OrderCreatedEvent event) {
-        logger.info("Received order created event: orderId={}, userId={}", 
-            event.getOrderId(), event.getUserId());
+    public void handleOrderCreated(OrderCreatedEvent event,
+                                   @Header(name = NotificationDeadLetters.CHANNEL_HEADER, required = false) String channel) {
+        logger.info("Received order created event: orderId={}, userId={}, channel={}", 
+            event.getOrderId(), event.getUserId(), channel == null ? "all" : channel);
+        
+        // Email, SMS and invoice run in parallel; each channel that fails after its retries is
+        // dead-lettered on its own and the message is acked. If dead-lettering throws, the
+        // whole message is rejected to notification.dlq instead
+        List<String> failed = channel == null
+            ? notificationDispatcher.dispatch(event)
+            : notificationDispatcher.dispatch(event, channel);
+        failed.forEach(name -> notificationDeadLetters.deadLetter(event, name));
         
-        try {
-            // Process notifications asynchronously
-            notificationService.sendOrderConfirmationEmail(event);
-            notificationService.sendOrderConfirmationSMS(event);
-            notificationService.generateInvoice(event);
-            
+        if (failed.isEmpty()) {
             logger.info("Successfully processed notifications for orderId={}", event.getOrderId());
-        } catch (Exception e) {
-            logger.error("Error processing notifications for orderId={}: {}", 
-                event.getOrderId(), e.getMessage(), e);
-            // In production, you might want to send to a dead letter queue
+        } else {
+            logger.warn("Notifications dead-lettered: orderId={}, channels={}", event.getOrderId(), failed);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.notification.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ecommerce.notification.config.NotificationProperties;
+import com.ecommerce.notification.config.NotificationProperties.ChannelSettings;
+import com.ecommerce.notification.dto.OrderCreatedEvent;
+import com.ecommerce.notification.service.NotificationService;
+
+/**
+ * Load test for the notification pipeline against a local stand-in broker.
+ *
+ * LocalBroker mimics the RabbitMQ listener container: N consumer threads, each
+ * taking up to `prefetch` messages at a time, acking on success and dead-lettering
+ * when the listener throws. The notification channels sleep to simulate I/O;
+ * every 50th order fails once (recovered by retry) and every 500th always fails
+ * its email, which dead-letters that channel alone.
+ *
+ * Opt-in: mvn test -Dbenchmark=true -Dtest=NotificationPipelineLoadTests
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NotificationPipelineLoadTests {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPipelineLoadTests.class);
+    private static final int EVENTS = 2_000;
+    private static final long CHANNEL_LATENCY_MILLIS = 20;
+
+    @ParameterizedTest(name = "concurrency={0}, prefetch={1}")
+    @CsvSource({"1, 1", "4, 10", "16, 10", "32, 25"})
+    void drainsBacklog(int concurrency, int prefetch) throws Exception {
+        NotificationProperties properties = new NotificationProperties();
+        for (String channel : List.of("email", "sms", "invoice")) {
+            ChannelSettings settings = new ChannelSettings();
+            settings.setBackoff(Duration.ofMillis(5));
+            properties.getChannels().put(channel, settings);
+        }
+        NotificationDispatcher dispatcher = new NotificationDispatcher(new SimulatedNotificationService(), properties);
+        CountingDeadLetters deadLetters = new CountingDeadLetters();
+        OrderEventConsumer consumer = new OrderEventConsumer(dispatcher, deadLetters);
+
+        LocalBroker broker = new LocalBroker(concurrency, prefetch, event -> consumer.handleOrderCreated(event, null));
+        for (long orderId = 1; orderId <= EVENTS; orderId++) {
+            broker.publish(new OrderCreatedEvent(orderId, "user-" + (orderId % 100), BigDecimal.TEN,
+                "CONFIRMED", LocalDateTime.now(), List.of()));
+        }
+
+        long start = System.nanoTime();
+        broker.drain();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        dispatcher.shutdown();
+
+        logger.info("concurrency={} prefetch={} events={} acked={} deadLettered={} channelDeadLetters={} time={}s throughput={} msg/s",
+            concurrency, prefetch, EVENTS, broker.acked.get(), broker.deadLettered.get(), deadLetters.channels,
+            String.format("%.2f", seconds), String.format("%.0f", EVENTS / seconds));
+
+        assertThat(broker.acked.get()).isEqualTo(EVENTS);
+        assertThat(deadLetters.channels).containsOnlyKeys("email");
+        assertThat(deadLetters.channels.get("email").get()).isEqualTo(EVENTS / 500);
+    }
+
+    // In-memory stand-in for notification.queue and its listener container
+    private static final class LocalBroker {
+        private final LinkedBlockingQueue<OrderCreatedEvent> queue = new LinkedBlockingQueue<>();
+        private final int concurrency;
+        private final int prefetch;
+        private final Consumer<OrderCreatedEvent> listener;
+        private final AtomicInteger acked = new AtomicInteger();
+        private final AtomicInteger deadLettered = new AtomicInteger();
+
+        LocalBroker(int concurrency, int prefetch, Consumer<OrderCreatedEvent> listener) {
+            this.concurrency = concurrency;
+            this.prefetch = prefetch;
+            this.listener = listener;
+        }
+
+        void publish(OrderCreatedEvent event) {
+            queue.add(event);
+        }
+
+        void drain() throws InterruptedException {
+            List<Thread> consumers = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Thread consumer = new Thread(this::consume, "local-listener-" + i);
+                consumer.start();
+                consumers.add(consumer);
+            }
+            for (Thread consumer : consumers) {
+                consumer.join(TimeUnit.MINUTES.toMillis(5));
+            }
+        }
+
+        private void consume() {
+            List<OrderCreatedEvent> window = new ArrayList<>(prefetch);
+            while (queue.drainTo(window, prefetch) > 0) {
+                for (OrderCreatedEvent event : window) {
+                    try {
+                        listener.accept(event);
+                        acked.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        deadLettered.incrementAndGet();
+                    }
+                }
+                window.clear();
+            }
+        }
+    }
+
+    // Counts dead letters per channel instead of publishing them
+    private static final class CountingDeadLetters extends NotificationDeadLetters {
+        private final Map<String, AtomicInteger> channels = new ConcurrentHashMap<>();
+
+        CountingDeadLetters() {
+            super(null);
+        }
+
+        @Override
+        public void deadLetter(OrderCreatedEvent event, String channel) {
+            channels.computeIfAbsent(channel, name -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    private static final class SimulatedNotificationService extends NotificationService {
+        private final Map<Long, AtomicInteger> emailAttempts = new ConcurrentHashMap<>();
+
+        @Override
+        public void sendOrderConfirmationEmail(OrderCreatedEvent event) {
+            simulateIo();
+            int attempt = emailAttempts.computeIfAbsent(event.getOrderId(), id -> new AtomicInteger()).incrementAndGet();
+            if (event.getOrderId() % 500 == 0 || (event.getOrderId() % 50 == 0 && attempt == 1)) {
+                throw new IllegalStateException("Simulated mail server failure");
+            }
+        }
+
+        @Override
+        public void sendOrderConfirmationSMS(OrderCreatedEvent event) {
+            simulateIo();
+        }
+
+        @Override
+        public void generateInvoice(OrderCreatedEvent event) {
+            simulateIo();
+        }
+
+        private static void simulateIo() {
+            try {
+                Thread.sleep(CHANNEL_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.observability;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registers the shared actuator extensions in every module that has this jar on its
+ * classpath (gateway, order, product, user).
+ */
+@AutoConfiguration
+public class ObservabilityAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnAvailableEndpoint(endpoint = SlowOperationsEndpoint.class)
+    SlowOperationsEndpoint slowOperationsEndpoint(MeterRegistry meterRegistry) {
+        return new SlowOperationsEndpoint(meterRegistry);
+    }
+}
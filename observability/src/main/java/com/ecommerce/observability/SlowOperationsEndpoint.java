@@ -0,0 +1,68 @@
+package com.ecommerce.observability;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * GET /actuator/slowops?limit=N lists the N timers (operation + tags) with the highest
+ * recent max latency. Max is Micrometer's rolling-window max, so the list reflects the
+ * last few minutes rather than all-time outliers; p99 is shown where configured.
+ */
+@Endpoint(id = "slowops")
+public class SlowOperationsEndpoint {
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final MeterRegistry meterRegistry;
+
+    public SlowOperationsEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public List<SlowOperation> slowest(@Nullable Integer limit) {
+        return meterRegistry.getMeters().stream()
+            .filter(Timer.class::isInstance)
+            .map(Timer.class::cast)
+            .filter(timer -> timer.count() > 0)
+            .map(SlowOperation::from)
+            .sorted(Comparator.comparingDouble(SlowOperation::maxMs).reversed())
+            .limit(limit == null || limit <= 0 ? DEFAULT_LIMIT : limit)
+            .toList();
+    }
+
+    public record SlowOperation(String name,
+                                Map<String, String> tags,
+                                long count,
+                                double meanMs,
+                                Double p99Ms,
+                                double maxMs) {
+
+        static SlowOperation from(Timer timer) {
+            Double p99 = null;
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == 0.99) {
+                    p99 = value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return new SlowOperation(
+                timer.getId().getName(),
+                timer.getId().getTags().stream().collect(Collectors.toMap(Tag::getKey, Tag::getValue)),
+                timer.count(),
+                timer.mean(TimeUnit.MILLISECONDS),
+                p99,
+                timer.max(TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ecommerce.observability;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.BraveAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.zipkin.ZipkinAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.unit.DataSize;
+
+import brave.TracingCustomizer;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import zipkin2.Span;
+import zipkin2.codec.SpanBytesEncoder;
+import zipkin2.reporter.AsyncReporter;
+import zipkin2.reporter.Sender;
+import zipkin2.reporter.brave.ZipkinSpanHandler;
+
+/**
+ * Trace sampling and Zipkin reporting, replacing 100% sampling.
+ *
+ * - head: a trace starts sampled with tracing.sampler.probability, capped at
+ *   tracing.sampler.max-traces-per-second; downstream services follow the B3 decision
+ * - tail: with tracing.sampler.tail.enabled, unsampled traces are still recorded
+ *   locally and reported whole if any span failed or the local root took longer
+ *   than latency-threshold
+ * - reporting: spans are queued and sent to Zipkin in batches
+ *
+ * Tail retention is decided per service: each one keeps its own part of an unsampled
+ * trace, so a slow gateway request shows the order spans only if order kept them too.
+ * Spans that finish after their local root (fire-and-forget work) are not reported.
+ * Retention costs a local span per request; turn it off to make unsampled requests
+ * allocation-free. Skipped when management.tracing.enabled=false.
+ */
+@AutoConfiguration(before = {BraveAutoConfiguration.class, ZipkinAutoConfiguration.class})
+@ConditionalOnProperty(name = "management.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingAutoConfiguration {
+
+    @Bean
+    public Sampler braveSampler(@Value("${tracing.sampler.probability:0.1}") float probability,
+                                @Value("${tracing.sampler.max-traces-per-second:100}") int maxTracesPerSecond) {
+        return new HeadSampler(probability, maxTracesPerSecond);
+    }
+
+    @Bean
+    public TracingCustomizer tailSamplingCustomizer(@Value("${tracing.sampler.tail.enabled:true}") boolean tailEnabled) {
+        return builder -> {
+            if (tailEnabled) {
+                builder.alwaysSampleLocal();
+            }
+        };
+    }
+
+    // Runs before the Zipkin handler, which then only sees sampled spans
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SpanHandler tailRetentionSpanHandler(AsyncReporter<Span> spanReporter, MeterRegistry meterRegistry,
+                                                @Value("${tracing.sampler.tail.latency-threshold:500ms}") Duration latencyThreshold,
+                                                @Value("${tracing.sampler.tail.max-pending-traces:10000}") int maxPendingTraces) {
+        SpanHandler retained = ZipkinSpanHandler.newBuilder(spanReporter).alwaysReportSpans(true).build();
+        return new TailRetentionSpanHandler(latencyThreshold, maxPendingTraces, retained, meterRegistry);
+    }
+
+    @Bean
+    public AsyncReporter<Span> spanReporter(Sender sender,
+                                            @Value("${tracing.reporter.queued-max-spans:10000}") int queuedMaxSpans,
+                                            @Value("${tracing.reporter.message-max-bytes:500KB}") DataSize messageMaxBytes,
+                                            @Value("${tracing.reporter.message-timeout:1s}") Duration messageTimeout) {
+        return AsyncReporter.builder(sender)
+            .queuedMaxSpans(queuedMaxSpans)
+            .messageMaxBytes((int) messageMaxBytes.toBytes())
+            .messageTimeout(messageTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .build(SpanBytesEncoder.JSON_V2);
+    }
+
+    @Bean
+    public ZipkinSpanHandler zipkinSpanHandler(AsyncReporter<Span> spanReporter) {
+        return (ZipkinSpanHandler) ZipkinSpanHandler.newBuilder(spanReporter).build();
+    }
+
+    // Probability first, then a per-second cap on what passes it
+    static final class HeadSampler extends Sampler {
+        private final Sampler probability;
+        private final Sampler rateLimit;
+
+        HeadSampler(float probability, int maxTracesPerSecond) {
+            this.probability = Sampler.create(probability);
+            this.rateLimit = RateLimitingSampler.create(maxTracesPerSecond);
+        }
+
+        @Override
+        public boolean isSampled(long traceId) {
+            return probability.isSampled(traceId) && rateLimit.isSampled(traceId);
+        }
+    }
+
+    // Buffers the spans of each unsampled local trace until its root ends, then hands
+    // all of them to the reporter or drops all of them
+    static final class TailRetentionSpanHandler extends SpanHandler {
+        private final long latencyThresholdMicros;
+        private final int maxPendingTraces;
+        private final SpanHandler reporter;
+        private final Map<Long, List<FinishedSpan>> pending = new ConcurrentHashMap<>();
+        private final Counter retainedErrors;
+        private final Counter retainedSlow;
+        private final Counter skipped;
+
+        TailRetentionSpanHandler(Duration latencyThreshold, int maxPendingTraces, SpanHandler reporter,
+                                 MeterRegistry meterRegistry) {
+            this.latencyThresholdMicros = TimeUnit.NANOSECONDS.toMicros(latencyThreshold.toNanos());
+            this.maxPendingTraces = maxPendingTraces;
+            this.reporter = reporter;
+            this.retainedErrors = Counter.builder("tracing.traces.retained").tag("reason", "error").register(meterRegistry);
+            this.retainedSlow = Counter.builder("tracing.traces.retained").tag("reason", "slow").register(meterRegistry);
+            this.skipped = Counter.builder("tracing.traces.skipped")
+                .description("Unsampled traces not buffered because max-pending-traces were in progress")
+                .register(meterRegistry);
+        }
+
+        @Override
+        public boolean begin(TraceContext context, MutableSpan span, TraceContext parent) {
+            if (!Boolean.TRUE.equals(context.sampled()) && context.isLocalRoot()) {
+                if (pending.size() < maxPendingTraces) {
+                    pending.put(context.localRootId(), new ArrayList<>());
+                } else {
+                    skipped.increment();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+            if (Boolean.TRUE.equals(context.sampled())) {
+                return true;
+            }
+            if (!context.isLocalRoot()) {
+                if (cause == Cause.FINISHED) {
+                    // Atomic with the root's remove, so the list is never appended to after the decision
+                    pending.computeIfPresent(context.localRootId(), (id, spans) -> {
+                        spans.add(new FinishedSpan(context, span));
+                        return spans;
+                    });
+                }
+                return false;
+            }
+
+            List<FinishedSpan> spans = pending.remove(context.localRootId());
+            if (spans == null || cause != Cause.FINISHED) {
+                return false;
+            }
+            spans.add(new FinishedSpan(context, span));
+            if (spans.stream().anyMatch(finished -> isError(finished.span()))) {
+                retainedErrors.increment();
+            } else if (span.finishTimestamp() - span.startTimestamp() >= latencyThresholdMicros) {
+                retainedSlow.increment();
+            } else {
+                return false;
+            }
+            for (FinishedSpan finished : spans) {
+                reporter.end(finished.context(), finished.span(), Cause.FINISHED);
+            }
+            return false;
+        }
+
+        private static boolean isError(MutableSpan span) {
+            String outcome = span.tag("outcome");
+            String status = span.tag("http.status_code");
+            return span.error() != null
+                || span.tag("error") != null
+                || "SERVER_ERROR".equals(outcome)
+                || (status != null && status.startsWith("5"));
+        }
+
+        private record FinishedSpan(TraceContext context, MutableSpan span) {
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ecommerce.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Query plan check for the services' QueryPlanTests: runs a repository call,
+ * EXPLAINs every statement Hibernate sent for it on H2 and logs the plans. A hot
+ * query fails the check when one of its statements reads a table with a full scan.
+ *
+ * Shipped in the observability test-jar; a @DataJpaTest imports QueryPlans.Inspection
+ * and autowires QueryPlans.
+ */
+public class QueryPlans {
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlans.class);
+
+    private final RecordingInspector inspector;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<String> fullScans = new ArrayList<>();
+
+    QueryPlans(RecordingInspector inspector, EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+        this.inspector = inspector;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Records every full scan of the query for assertNoFullScans
+    public void hot(String name, Runnable query) {
+        for (String plan : plans(name, query)) {
+            if (isFullScan(plan)) {
+                fullScans.add(name + ": " + plan);
+            }
+        }
+    }
+
+    // Scans by design (whole-table reads); the plans are only logged
+    public void logged(String name, Runnable query) {
+        plans(name, query);
+    }
+
+    // Fails listing every full scan recorded by hot, and starts the next check empty
+    public void assertNoFullScans() {
+        List<String> found = List.copyOf(fullScans);
+        fullScans.clear();
+        assertThat(found).isEmpty();
+    }
+
+    // Runs the query and returns the plan of every statement it sent, flushed writes included
+    public List<String> plans(String name, Runnable query) {
+        inspector.statements.clear();
+        query.run();
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> plans = new ArrayList<>();
+        for (String sql : List.copyOf(inspector.statements)) {
+            String plan = explain(sql);
+            logger.info("{}: {}", name, plan);
+            plans.add(plan);
+        }
+        return plans;
+    }
+
+    public static boolean isFullScan(String plan) {
+        return plan.toLowerCase(Locale.ROOT).contains("tablescan");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                // The plan is chosen at prepare time; the values only have to be bound
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    // Collects the SQL of every statement Hibernate prepares
+    static class RecordingInspector implements StatementInspector {
+        private final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    public static class Inspection {
+        @Bean
+        RecordingInspector recordingInspector() {
+            return new RecordingInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(RecordingInspector recordingInspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, recordingInspector);
+        }
+
+        @Bean
+        QueryPlans queryPlans(RecordingInspector recordingInspector, EntityManager entityManager,
+                              JdbcTemplate jdbcTemplate) {
+            return new QueryPlans(recordingInspector, entityManager, jdbcTemplate);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tail retention keeps or drops an unsampled trace as a whole: the spans of a request
+ * reach the reporter together once its root ends, or not at all.
+ */
+class TailRetentionSpanHandlerTests {
+    private static final Duration LATENCY_THRESHOLD = Duration.ofMillis(500);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CollectingHandler retained = new CollectingHandler();
+    private final CollectingHandler sampled = new CollectingHandler();
+    private Tracing tracing;
+
+    @AfterEach
+    void close() {
+        tracing.close();
+    }
+
+    @Test
+    void failedChildKeepsTheWholeTrace() {
+        Tracer tracer = tracer(0.0f);
+        request(tracer, 2_000, true);
+
+        assertThat(retained.names()).containsExactly("repository", "client", "server");
+        assertThat(meterRegistry.counter("tracing.traces.retained", "reason", "error").count()).isEqualTo(1);
+        assertThat(sampled.names()).isEmpty();
+    }
+
+    @Test
+    void slowRootKeepsTheWholeTrace() {
+        Tracer tracer = tracer(0.0f);
+        request(tracer, 800_000, false);
+
+        assertThat(retained.names()).containsExactly("repository", "client", "server");
+        assertThat(meterRegistry.counter("tracing.traces.retained", "reason", "slow").count()).isEqualTo(1);
+    }
+
+    @Test
+    void fastSuccessfulTraceIsDroppedWhole() {
+        Tracer tracer = tracer(0.0f);
+        request(tracer, 2_000, false);
+
+        assertThat(retained.names()).isEmpty();
+        assertThat(sampled.names()).isEmpty();
+    }
+
+    @Test
+    void sampledTracesGoStraightToTheReporter() {
+        Tracer tracer = tracer(1.0f);
+        request(tracer, 2_000, false);
+
+        assertThat(sampled.names()).containsExactly("repository", "client", "server");
+        assertThat(retained.names()).isEmpty();
+    }
+
+    private Tracer tracer(float probability) {
+        tracing = Tracing.newBuilder()
+            .sampler(new TracingAutoConfiguration.HeadSampler(probability, Integer.MAX_VALUE))
+            .alwaysSampleLocal()
+            .addSpanHandler(new TracingAutoConfiguration.TailRetentionSpanHandler(
+                LATENCY_THRESHOLD, 100, retained, meterRegistry))
+            .addSpanHandler(sampled)
+            .build();
+        return tracing.tracer();
+    }
+
+    // A server span with a repository and a client child; only the child fails
+    private static void request(Tracer tracer, long durationMicros, boolean childFails) {
+        long startMicros = 1_000_000L;
+        Span server = tracer.newTrace().kind(Span.Kind.SERVER).name("server").start(startMicros);
+        Span repository = tracer.newChild(server.context()).name("repository").start(startMicros + 100);
+        repository.finish(startMicros + 600);
+        Span client = tracer.newChild(server.context()).kind(Span.Kind.CLIENT).name("client").start(startMicros + 700);
+        if (childFails) {
+            client.error(new IllegalStateException("simulated failure"));
+        }
+        client.finish(startMicros + 1_500);
+        server.finish(startMicros + durationMicros);
+    }
+
+    private static final class CollectingHandler extends SpanHandler {
+        private final List<MutableSpan> spans = new ArrayList<>();
+
+        @Override
+        public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+            spans.add(span);
+            return true;
+        }
+
+        List<String> names() {
+            return spans.stream().map(MutableSpan::name).toList();
+        }
+    }
+}
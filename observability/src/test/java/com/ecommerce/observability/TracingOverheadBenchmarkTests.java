@@ -0,0 +1,139 @@
+package com.ecommerce.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import zipkin2.Call;
+import zipkin2.codec.Encoding;
+import zipkin2.codec.SpanBytesEncoder;
+import zipkin2.reporter.AsyncReporter;
+import zipkin2.reporter.Sender;
+import zipkin2.reporter.brave.ZipkinSpanHandler;
+
+/**
+ * Per-request tracing overhead at several sampling settings.
+ *
+ * Each simulated request is a server span with two children (a repository call
+ * and a client call), built with the same sampler, tail-retention handler and
+ * batched reporter as TracingAutoConfiguration. 1% of requests fail and 1% are slow. Reports
+ * time and heap allocated per request and how many spans reached the sender.
+ *
+ * Opt-in: mvn test -Dbenchmark=true -Dtest=TracingOverheadBenchmarkTests
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TracingOverheadBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(TracingOverheadBenchmarkTests.class);
+    private static final int WARMUP_REQUESTS = 50_000;
+    private static final int REQUESTS = 500_000;
+    private static final Duration LATENCY_THRESHOLD = Duration.ofMillis(500);
+
+    @ParameterizedTest(name = "probability={0}, tail={1}")
+    @CsvSource({
+        "0.0, false", "0.0, true",
+        "0.01, false", "0.01, true",
+        "0.1, false", "0.1, true",
+        "1.0, false"
+    })
+    void measuresOverhead(float probability, boolean tail) {
+        CountingSender sender = new CountingSender();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AsyncReporter<zipkin2.Span> reporter = AsyncReporter.builder(sender).build(SpanBytesEncoder.JSON_V2);
+        Tracing.Builder builder = Tracing.newBuilder()
+            .localServiceName("order-service")
+            .sampler(new TracingAutoConfiguration.HeadSampler(probability, Integer.MAX_VALUE))
+            .addSpanHandler(new TracingAutoConfiguration.TailRetentionSpanHandler(LATENCY_THRESHOLD, 10_000,
+                ZipkinSpanHandler.newBuilder(reporter).alwaysReportSpans(true).build(), meterRegistry))
+            .addSpanHandler(ZipkinSpanHandler.newBuilder(reporter).build());
+        if (tail) {
+            builder.alwaysSampleLocal();
+        }
+
+        try (Tracing tracing = builder.build()) {
+            Tracer tracer = tracing.tracer();
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                simulateRequest(tracer, i);
+            }
+            reporter.flush();
+            sender.spans.set(0);
+
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                simulateRequest(tracer, i);
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            reporter.flush();
+
+            logger.info("probability={} tail={} ns/request={} bytes/request={} spansReported={}",
+                probability, tail, elapsed / REQUESTS, allocated / REQUESTS, sender.spans.get());
+            if (tail) {
+                // Every failed and slow unsampled request keeps its whole trace
+                double retained = meterRegistry.find("tracing.traces.retained").counters().stream()
+                    .mapToDouble(counter -> counter.count())
+                    .sum();
+                assertThat(retained).isGreaterThanOrEqualTo((WARMUP_REQUESTS + REQUESTS) / 50 * (1 - probability));
+            }
+        } finally {
+            reporter.close();
+        }
+    }
+
+    private static void simulateRequest(Tracer tracer, int i) {
+        long startMicros = 1_000_000L * i;
+        long durationMicros = i % 100 == 1 ? 800_000 : 2_000;
+
+        Span server = tracer.newTrace().kind(Span.Kind.SERVER).name("http post /api/orders").start(startMicros);
+        server.tag("uri", "/api/orders");
+        Span repository = tracer.newChild(server.context()).name("order-repository.save").start(startMicros + 100);
+        repository.finish(startMicros + 600);
+        Span client = tracer.newChild(server.context()).kind(Span.Kind.CLIENT).name("http get").start(startMicros + 700);
+        client.tag("http.url", "http://product-service/api/products");
+        client.finish(startMicros + 1_500);
+        if (i % 100 == 0) {
+            server.error(new IllegalStateException("simulated failure"));
+        }
+        server.finish(startMicros + durationMicros);
+    }
+
+    // Encodes like the HTTP sender but drops the bytes, so the cost measured is ours
+    private static final class CountingSender extends Sender {
+        private final AtomicLong spans = new AtomicLong();
+
+        @Override
+        public Encoding encoding() {
+            return Encoding.JSON;
+        }
+
+        @Override
+        public int messageMaxBytes() {
+            return 500 * 1024;
+        }
+
+        @Override
+        public int messageSizeInBytes(List<byte[]> encodedSpans) {
+            return encoding().listSizeInBytes(encodedSpans);
+        }
+
+        @Override
+        public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+            spans.addAndGet(encodedSpans.size());
+            return Call.create(null);
+        }
+    }
+}
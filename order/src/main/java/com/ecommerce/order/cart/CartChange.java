@@ -0,0 +1,46 @@
+package com.ecommerce.order.cart;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.ecommerce.order.dto.CartOperationType;
+import com.ecommerce.order.model.CartItem;
+
+/**
+ * One operation of a batch cart update, with the product price and stock already
+ * looked up. unitPrice and availableStock are not used by REMOVE.
+ */
+public record CartChange(CartOperationType type, Long productId, int quantity,
+                         BigDecimal unitPrice, int availableStock) {
+
+    // Applies the changes in order to lines (productId -> line), creating, repricing and
+    // removing lines in place. Returns false as soon as a line would exceed its stock;
+    // the caller then discards lines.
+    static boolean applyAll(String userId, List<CartChange> changes, Map<Long, CartItem> lines) {
+        for (CartChange change : changes) {
+            CartItem item = lines.get(change.productId());
+            int newQuantity = switch (change.type()) {
+                case ADD -> (item == null ? 0 : item.getQuantity()) + change.quantity();
+                case SET -> change.quantity();
+                case REMOVE -> 0;
+            };
+            if (newQuantity == 0) {
+                lines.remove(change.productId());
+                continue;
+            }
+            if (newQuantity > change.availableStock()) {
+                return false;
+            }
+            if (item == null) {
+                item = new CartItem();
+                item.setUserId(userId);
+                item.setProductId(change.productId());
+                lines.put(change.productId(), item);
+            }
+            item.setQuantity(newQuantity);
+            item.setPrice(MinorUnits.toDecimal(MinorUnits.of(change.unitPrice()) * newQuantity));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.order.cart;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.model.CartSummary;
+
+/**
+ * Storage engine behind CartService.
+ *
+ * Selected with cart.store:
+ * - jpa (default): every operation goes straight to the cart_item table
+ * - striped: carts held in memory, lock-striped by userId, written behind to cart_item
+ *
+ * Implementations must make addItem atomic per user and product, and checkout must
+ * return the exact lines it removes. Each store keeps a CartSummary up to date as
+ * lines change, so getSummary never adds up the lines.
+ */
+public interface CartStore {
+
+    List<CartItem> getCart(String userId);
+
+    // Line count, item count and subtotal of the cart; zeros for an empty cart
+    CartSummary getSummary(String userId);
+
+    // Adds quantity to the user's line for the product, creating it if needed, and
+    // reprices the line at unitPrice. Returns empty without changing anything when the
+    // merged quantity would exceed availableStock.
+    Optional<CartItem> addItem(String userId, Long productId, int quantity,
+                               BigDecimal unitPrice, int availableStock);
+
+    boolean removeItem(String userId, Long productId);
+
+    // Applies all changes in order as one atomic update and returns the resulting cart,
+    // or empty without changing anything when a line would exceed its availableStock
+    Optional<List<CartItem>> applyChanges(String userId, List<CartChange> changes);
+
+    // Removes and returns the user's cart as one consistent snapshot. Must be called in
+    // a transaction; if it rolls back, the lines are restored.
+    List<CartItem> checkout(String userId);
+
+    void clear(String userId);
+}
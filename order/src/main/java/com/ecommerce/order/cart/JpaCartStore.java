@@ -0,0 +1,213 @@
+package com.ecommerce.order.cart;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.model.CartSummary;
+import com.ecommerce.order.repository.CartItemRepository;
+import com.ecommerce.order.repository.CartSummaryRepository;
+
+// Database-backed store: the cart_item table is the only copy of the cart, and
+// cart_summary holds its running totals, adjusted in the same transaction as the lines
+@Component
+@ConditionalOnProperty(name = "cart.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaCartStore implements CartStore {
+    private final CartItemRepository cartItemRepository;
+    private final CartSummaryRepository cartSummaryRepository;
+    private final TransactionTemplate transaction;
+
+    public JpaCartStore(CartItemRepository cartItemRepository,
+                        CartSummaryRepository cartSummaryRepository,
+                        PlatformTransactionManager transactionManager) {
+        this.cartItemRepository = cartItemRepository;
+        this.cartSummaryRepository = cartSummaryRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public List<CartItem> getCart(String userId) {
+        return cartItemRepository.findByUserId(userId);
+    }
+
+    // One primary-key read; only a cart never changed since summaries were added is summed
+    @Override
+    public CartSummary getSummary(String userId) {
+        return cartSummaryRepository.findById(userId)
+            .orElseGet(() -> summarize(userId, cartItemRepository.findByUserId(userId)));
+    }
+
+    // The existing row is read with a row lock, so concurrent adds for the same line
+    // are serialized instead of overwriting each other's quantity. A new line has no row
+    // to lock: of two concurrent first adds, one fails uk_cart_item_user_product and is
+    // retried, finding and merging into the other's line
+    @Override
+    public Optional<CartItem> addItem(String userId, Long productId, int quantity,
+                                      BigDecimal unitPrice, int availableStock) {
+        return retryOnConflict(status -> {
+            CartItem item = cartItemRepository.findByUserIdAndProductIdForUpdate(userId, productId)
+                .orElseGet(() -> {
+                    CartItem cartItem = new CartItem();
+                    cartItem.setUserId(userId);
+                    cartItem.setProductId(productId);
+                    cartItem.setQuantity(0);
+                    return cartItem;
+                });
+
+            int newQuantity = item.getQuantity() + quantity;
+            if (newQuantity > availableStock) {
+                return Optional.<CartItem>empty();
+            }
+            long oldPriceMinor = item.getPrice() == null ? 0 : MinorUnits.of(item.getPrice());
+            long newPriceMinor = MinorUnits.of(unitPrice) * newQuantity;
+            boolean newLine = item.getId() == null;
+            item.setQuantity(newQuantity);
+            item.setPrice(MinorUnits.toDecimal(newPriceMinor));
+            // Flushed here, so a lost insert race surfaces inside the retried callback
+            CartItem saved = cartItemRepository.saveAndFlush(item);
+            applyDelta(userId, newLine ? 1 : 0, quantity, newPriceMinor - oldPriceMinor,
+                () -> cartItemRepository.findByUserId(userId));
+            return Optional.of(saved);
+        });
+    }
+
+    @Override
+    public boolean removeItem(String userId, Long productId) {
+        return retryOnConflict(status -> {
+            Optional<CartItem> cartItemOpt = cartItemRepository.findByUserIdAndProductIdForUpdate(userId, productId);
+            cartItemOpt.ifPresent(item -> {
+                cartItemRepository.delete(item);
+                applyDelta(userId, -1, -item.getQuantity(), -MinorUnits.of(item.getPrice()),
+                    () -> cartItemRepository.findByUserId(userId));
+            });
+            return cartItemOpt.isPresent();
+        });
+    }
+
+    // One locked read of the cart, the changes applied to the loaded lines, then one
+    // batched delete and the inserts and updates flushed as JDBC batches. New lines race
+    // like in addItem, and a lost race is retried the same way
+    @Override
+    public Optional<List<CartItem>> applyChanges(String userId, List<CartChange> changes) {
+        return retryOnConflict(status -> applyChanges(userId, changes, status));
+    }
+
+    private Optional<List<CartItem>> applyChanges(String userId, List<CartChange> changes,
+                                                  TransactionStatus status) {
+        List<CartItem> existing = cartItemRepository.findByUserIdForUpdate(userId);
+        Map<Long, CartItem> lines = new LinkedHashMap<>();
+        existing.forEach(item -> lines.put(item.getProductId(), item));
+        CartSummary before = summarize(userId, existing);
+
+        if (!CartChange.applyAll(userId, changes, lines)) {
+            // Undo the changes already made to the loaded lines
+            status.setRollbackOnly();
+            return Optional.empty();
+        }
+
+        // A line removed and added back in the same batch is a new row
+        List<CartItem> removed = new ArrayList<>();
+        for (CartItem item : existing) {
+            if (lines.get(item.getProductId()) != item) {
+                removed.add(item);
+            }
+        }
+        if (!removed.isEmpty()) {
+            cartItemRepository.deleteAllInBatch(removed);
+        }
+        List<CartItem> saved = cartItemRepository.saveAll(lines.values());
+        cartItemRepository.flush();
+
+        CartSummary after = summarize(userId, saved);
+        // The locked read returned the whole cart, so the saved lines are all of it
+        applyDelta(userId, after.getLineCount() - before.getLineCount(),
+            after.getItemCount() - before.getItemCount(), after.getSubtotalMinor() - before.getSubtotalMinor(),
+            () -> saved);
+        return Optional.of(saved);
+    }
+
+    // Reads the cart and deletes exactly the rows that were read in a single statement,
+    // so lines added while the order is being placed are not lost
+    @Override
+    @Transactional
+    public List<CartItem> checkout(String userId) {
+        List<CartItem> cartItems = cartItemRepository.findByUserId(userId);
+        removeLines(userId, cartItems);
+        return cartItems;
+    }
+
+    // Same as checkout: only the lines read are deleted and subtracted from the summary
+    @Override
+    public void clear(String userId) {
+        retryOnConflict(status -> {
+            removeLines(userId, cartItemRepository.findByUserId(userId));
+            return null;
+        });
+    }
+
+    // Runs the change in its own transaction and retries it once when it lost an insert race
+    // on a unique key: the winner has committed by then, so the retry sees its row. Inside a
+    // caller's transaction the failed statement has already doomed it, so it is rethrown
+    private <T> T retryOnConflict(TransactionCallback<T> change) {
+        try {
+            return transaction.execute(change);
+        } catch (DataIntegrityViolationException e) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            return transaction.execute(change);
+        }
+    }
+
+    private void removeLines(String userId, List<CartItem> cartItems) {
+        if (cartItems.isEmpty()) {
+            return;
+        }
+        cartItemRepository.deleteAllInBatch(cartItems);
+        CartSummary removed = summarize(userId, cartItems);
+        applyDelta(userId, -removed.getLineCount(), -removed.getItemCount(), -removed.getSubtotalMinor(),
+            () -> cartItemRepository.findByUserId(userId));
+    }
+
+    // Adjusts the summary in the caller's transaction. The first change since summaries
+    // were added finds no row: it inserts one from the cart as this transaction sees it,
+    // change included, so there is nothing left to add. A row committed by a concurrent
+    // request in between is adjusted instead; one still uncommitted makes the insert fail
+    // on pk_cart_summary, and retryOnConflict runs the change again
+    private void applyDelta(String userId, int lines, int items, long subtotalMinor,
+                            Supplier<Collection<CartItem>> cart) {
+        if (cartSummaryRepository.applyDelta(userId, lines, items, subtotalMinor) == 0) {
+            CartSummary summary = summarize(userId, cart.get());
+            if (cartSummaryRepository.insertIfAbsent(userId, summary.getLineCount(), summary.getItemCount(),
+                    summary.getSubtotalMinor()) == 0) {
+                cartSummaryRepository.applyDelta(userId, lines, items, subtotalMinor);
+            }
+        }
+    }
+
+    static CartSummary summarize(String userId, Collection<CartItem> cartItems) {
+        int itemCount = 0;
+        long subtotalMinor = 0;
+        for (CartItem item : cartItems) {
+            itemCount += item.getQuantity();
+            subtotalMinor += MinorUnits.of(item.getPrice());
+        }
+        return new CartSummary(userId, cartItems.size(), itemCount, subtotalMinor);
+    }
+}
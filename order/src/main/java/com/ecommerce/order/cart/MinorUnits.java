@@ -0,0 +1,24 @@
+package com.ecommerce.order.cart;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money as a long count of minor units (cents), for totals that are added up on
+ * every cart change or checkout line. Prices have two decimals; converting back to
+ * BigDecimal happens once, at the edge.
+ */
+public final class MinorUnits {
+    private static final int SCALE = 2;
+
+    private MinorUnits() {
+    }
+
+    public static long of(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
@@ -0,0 +1,394 @@
+package com.ecommerce.order.cart;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.model.CartSummary;
+import com.ecommerce.order.repository.CartItemRepository;
+import com.ecommerce.order.repository.CartSummaryRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory cart store with write-behind persistence to cart_item.
+ *
+ * Every operation on a user's cart runs under one of a fixed set of ReentrantLocks
+ * picked by userId, so adds for the same line merge without lost updates while
+ * different users rarely contend. A cart is read from the database on first use and
+ * changes are flushed in batches every cart.store.striped.flush-interval-ms. The
+ * cart's totals are kept next to its lines and written to cart_summary with them.
+ *
+ * Checkout is the exception: it deletes the user's rows in the caller's transaction,
+ * so the order and the emptied cart commit together, and puts the lines back in
+ * memory if that transaction rolls back.
+ *
+ * Carts live in this instance's memory; enable it only when each user's requests
+ * reach a single order-service instance.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.store", havingValue = "striped")
+public class StripedCartStore implements CartStore {
+    private static final Logger logger = LoggerFactory.getLogger(StripedCartStore.class);
+
+    private final CartItemRepository cartItemRepository;
+    private final CartSummaryRepository cartSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes;
+    private final long idleEvictionNanos;
+
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>();
+    private final Set<String> dirtyUsers = ConcurrentHashMap.newKeySet();
+    private final Counter flushFailures;
+
+    public StripedCartStore(CartItemRepository cartItemRepository,
+                            CartSummaryRepository cartSummaryRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${cart.store.striped.stripes:256}") int stripeCount,
+                            @Value("${cart.store.striped.idle-eviction:10m}") Duration idleEviction) {
+        this.cartItemRepository = cartItemRepository;
+        this.cartSummaryRepository = cartSummaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.idleEvictionNanos = idleEviction.toNanos();
+
+        Gauge.builder("cart.store.carts", carts, Map::size)
+            .description("Carts held in memory")
+            .register(meterRegistry);
+        Gauge.builder("cart.store.dirty", dirtyUsers, Set::size)
+            .description("Carts with changes not yet written to cart_item")
+            .register(meterRegistry);
+        this.flushFailures = Counter.builder("cart.store.flush.failures").register(meterRegistry);
+    }
+
+    @Override
+    public List<CartItem> getCart(String userId) {
+        return withLock(userId, () -> cart(userId).items.values().stream()
+            .map(StripedCartStore::copy)
+            .toList());
+    }
+
+    @Override
+    public CartSummary getSummary(String userId) {
+        return withLock(userId, () -> cart(userId).summary(userId));
+    }
+
+    @Override
+    public Optional<CartItem> addItem(String userId, Long productId, int quantity,
+                                      BigDecimal unitPrice, int availableStock) {
+        return withLock(userId, () -> {
+            Cart cart = cart(userId);
+            CartItem item = cart.items.get(productId);
+            int newQuantity = quantity + (item == null ? 0 : item.getQuantity());
+            if (newQuantity > availableStock) {
+                return Optional.empty();
+            }
+            long newPriceMinor = MinorUnits.of(unitPrice) * newQuantity;
+            if (item == null) {
+                item = new CartItem();
+                item.setUserId(userId);
+                item.setProductId(productId);
+                cart.items.put(productId, item);
+            } else {
+                cart.subtotalMinor -= MinorUnits.of(item.getPrice());
+            }
+            item.setQuantity(newQuantity);
+            item.setPrice(MinorUnits.toDecimal(newPriceMinor));
+            cart.itemCount += quantity;
+            cart.subtotalMinor += newPriceMinor;
+            cart.changed.add(productId);
+            dirtyUsers.add(userId);
+            return Optional.of(copy(item));
+        });
+    }
+
+    @Override
+    public boolean removeItem(String userId, Long productId) {
+        return withLock(userId, () -> {
+            Cart cart = cart(userId);
+            CartItem removed = cart.items.remove(productId);
+            if (removed == null) {
+                return false;
+            }
+            cart.itemCount -= removed.getQuantity();
+            cart.subtotalMinor -= MinorUnits.of(removed.getPrice());
+            cart.changed.remove(productId);
+            if (removed.getId() != null) {
+                cart.removedIds.add(removed.getId());
+            }
+            dirtyUsers.add(userId);
+            return true;
+        });
+    }
+
+    // Applied to copies of the lines first, so a failed batch leaves the cart untouched
+    @Override
+    public Optional<List<CartItem>> applyChanges(String userId, List<CartChange> changes) {
+        return withLock(userId, () -> {
+            Cart cart = cart(userId);
+            Map<Long, CartItem> lines = new LinkedHashMap<>();
+            cart.items.values().forEach(item -> lines.put(item.getProductId(), copy(item)));
+            if (!CartChange.applyAll(userId, changes, lines)) {
+                return Optional.empty();
+            }
+
+            for (CartItem original : cart.items.values()) {
+                CartItem updated = lines.get(original.getProductId());
+                if (updated == null || !Objects.equals(updated.getId(), original.getId())) {
+                    // Removed, or removed and added back as a new line
+                    cart.changed.remove(original.getProductId());
+                    if (original.getId() != null) {
+                        cart.removedIds.add(original.getId());
+                    }
+                } else if (updated.getQuantity().equals(original.getQuantity())
+                        && updated.getPrice().equals(original.getPrice())) {
+                    continue;
+                }
+                if (updated != null) {
+                    cart.changed.add(updated.getProductId());
+                }
+            }
+            for (CartItem updated : lines.values()) {
+                if (!cart.items.containsKey(updated.getProductId())) {
+                    cart.changed.add(updated.getProductId());
+                }
+            }
+
+            cart.items.clear();
+            cart.items.putAll(lines);
+            cart.itemCount = 0;
+            cart.subtotalMinor = 0;
+            for (CartItem item : lines.values()) {
+                cart.itemCount += item.getQuantity();
+                cart.subtotalMinor += MinorUnits.of(item.getPrice());
+            }
+            dirtyUsers.add(userId);
+            return Optional.of(lines.values().stream().map(StripedCartStore::copy).toList());
+        });
+    }
+
+    @Override
+    public List<CartItem> checkout(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Cart checkout must run in a transaction: userId=" + userId);
+        }
+        return withLock(userId, () -> {
+            Cart cart = cart(userId);
+            List<CartItem> snapshot = new ArrayList<>(cart.items.values());
+            if (snapshot.isEmpty()) {
+                return List.of();
+            }
+
+            // Rows flushed so far go in the caller's transaction; unflushed lines never reached the table
+            cartItemRepository.deleteByUserId(userId);
+            cartSummaryRepository.deleteByUserId(userId);
+            cart.items.clear();
+            cart.itemCount = 0;
+            cart.subtotalMinor = 0;
+            cart.changed.clear();
+            cart.removedIds.clear();
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        restore(userId, snapshot);
+                    }
+                }
+            });
+            return snapshot.stream().map(StripedCartStore::copy).toList();
+        });
+    }
+
+    @Override
+    public void clear(String userId) {
+        withLock(userId, () -> {
+            Cart cart = cart(userId);
+            cart.items.values().stream()
+                .map(CartItem::getId)
+                .filter(id -> id != null)
+                .forEach(cart.removedIds::add);
+            cart.items.clear();
+            cart.itemCount = 0;
+            cart.subtotalMinor = 0;
+            cart.changed.clear();
+            dirtyUsers.add(userId);
+            return null;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${cart.store.striped.flush-interval-ms:1000}")
+    public void flush() {
+        for (String userId : dirtyUsers) {
+            try {
+                flush(userId);
+            } catch (Exception e) {
+                flushFailures.increment();
+                logger.error("Cart flush failed, will retry: userId={}, error={}", userId, e.getMessage(), e);
+            }
+        }
+        evictIdleCarts();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Writes one user's pending changes; runs under the user's stripe so the cart cannot
+    // change between the snapshot and the ids the inserts assign
+    private void flush(String userId) {
+        withLock(userId, () -> {
+            Cart cart = carts.get(userId);
+            if (!dirtyUsers.remove(userId) || cart == null) {
+                return null;
+            }
+            List<CartItem> changed = cart.changed.stream()
+                .map(cart.items::get)
+                .toList();
+            List<CartItem> inserted = changed.stream()
+                .filter(item -> item.getId() == null)
+                .toList();
+            CartSummary summary = cart.summary(userId);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!cart.removedIds.isEmpty()) {
+                        cartItemRepository.deleteAllByIdInBatch(cart.removedIds);
+                    }
+                    cartItemRepository.saveAll(changed);
+                    cartSummaryRepository.save(summary);
+                });
+            } catch (RuntimeException e) {
+                // Ids handed out by the rolled-back inserts were never written
+                inserted.forEach(item -> item.setId(null));
+                dirtyUsers.add(userId);
+                throw e;
+            }
+            cart.changed.clear();
+            cart.removedIds.clear();
+            logger.debug("Cart flushed: userId={}, saved={}", userId, changed.size());
+            return null;
+        });
+    }
+
+    // Puts the lines of a rolled-back checkout back, merging with anything added since
+    private void restore(String userId, List<CartItem> snapshot) {
+        withLock(userId, () -> {
+            Cart cart = cart(userId);
+            for (CartItem item : snapshot) {
+                CartItem current = cart.items.get(item.getProductId());
+                if (current != null && item.getId() != null && item.getId().equals(current.getId())) {
+                    // Already reloaded from the table after the rollback
+                    continue;
+                }
+                if (current != null) {
+                    // Its quantity and price are already in the totals; only the snapshot's are added below
+                    item.setQuantity(item.getQuantity() + current.getQuantity());
+                    item.setPrice(item.getPrice().add(current.getPrice()));
+                    cart.itemCount -= current.getQuantity();
+                    cart.subtotalMinor -= MinorUnits.of(current.getPrice());
+                    if (current.getId() != null) {
+                        cart.removedIds.add(current.getId());
+                    }
+                }
+                cart.itemCount += item.getQuantity();
+                cart.subtotalMinor += MinorUnits.of(item.getPrice());
+                cart.items.put(item.getProductId(), item);
+                cart.changed.add(item.getProductId());
+            }
+            dirtyUsers.add(userId);
+            logger.info("Cart restored after failed checkout: userId={}, lines={}", userId, snapshot.size());
+            return null;
+        });
+    }
+
+    private void evictIdleCarts() {
+        long now = System.nanoTime();
+        for (String userId : carts.keySet()) {
+            withLock(userId, () -> {
+                Cart cart = carts.get(userId);
+                if (cart != null && !dirtyUsers.contains(userId) && now - cart.lastAccess > idleEvictionNanos) {
+                    carts.remove(userId);
+                }
+                return null;
+            });
+        }
+    }
+
+    // Caller must hold the user's stripe. A first access reads the cart from the database
+    // while holding it, so users on the same stripe wait for that read; it is not done in
+    // a map compute, so other stripes never do. Threads waiting on the stripe (a
+    // ReentrantLock) unmount when virtual; the JDBC call itself may still pin its carrier
+    private Cart cart(String userId) {
+        Cart cart = carts.get(userId);
+        if (cart == null) {
+            cart = new Cart();
+            for (CartItem item : cartItemRepository.findByUserId(userId)) {
+                cart.items.put(item.getProductId(), item);
+                cart.itemCount += item.getQuantity();
+                cart.subtotalMinor += MinorUnits.of(item.getPrice());
+            }
+            carts.put(userId, cart);
+        }
+        cart.lastAccess = System.nanoTime();
+        return cart;
+    }
+
+    private <T> T withLock(String userId, Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static CartItem copy(CartItem item) {
+        return new CartItem(item.getId(), item.getUserId(), item.getProductId(), item.getQuantity(),
+            item.getPrice(), item.getCreatedAt(), item.getUpdatedAt());
+    }
+
+    // Guarded by the owning user's stripe
+    private static final class Cart {
+        private final Map<Long, CartItem> items = new LinkedHashMap<>();
+        private final Set<Long> changed = new HashSet<>();
+        private final Set<Long> removedIds = new HashSet<>();
+        private int itemCount;
+        private long subtotalMinor;
+        private long lastAccess;
+
+        private CartSummary summary(String userId) {
+            return new CartSummary(userId, items.size(), itemCount, subtotalMinor);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.order.client;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.ecommerce.order.dto.UserResponse;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caching decorator around UserServiceClient.
+ *
+ * WHY NEEDED:
+ * - CartService.addToCart validates the user over HTTP on every add-to-cart
+ * - The answer rarely changes, so the remote call is almost always redundant
+ *
+ * PURPOSE:
+ * - Caches found users for a TTL and unknown ids (404) for a shorter negative TTL
+ * - Coalesces concurrent lookups of the same id into one in-flight remote call
+ * - Never caches failures, so the circuit breaker still sees them
+ * - Publishes cache.gets, cache.load.duration and cache.hit.ratio metrics
+ */
+public class CachingUserServiceClient implements UserServiceClient {
+    private static final String CACHE_NAME = "user-service.users";
+
+    private final UserServiceClient delegate;
+    private final AsyncCache<String, Optional<UserResponse>> cache;
+
+    public CachingUserServiceClient(UserServiceClient delegate,
+                                    Duration ttl,
+                                    Duration negativeTtl,
+                                    long maxSize,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new FoundOrMissingExpiry(ttl, negativeTtl))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.synchronous().stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserResponse getUserDetails(String id) {
+        CompletableFuture<Optional<UserResponse>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<UserResponse>> result = cache.get(id, (key, executor) -> load);
+
+        // The caller that installed the future performs the remote call on its own thread;
+        // concurrent callers for the same id wait for that future instead of calling again
+        if (result == load) {
+            try {
+                load.complete(Optional.ofNullable(delegate.getUserDetails(id)));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return result.join().orElse(null);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Found users live for the TTL, 404s only for the negative TTL
+    private record FoundOrMissingExpiry(Duration ttl, Duration negativeTtl)
+            implements Expiry<String, Optional<UserResponse>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<UserResponse> value, long currentTime) {
+            return value.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<UserResponse> value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<UserResponse> value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
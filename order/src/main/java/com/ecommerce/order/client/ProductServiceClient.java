@@ -0,0 +1,24 @@
+package com.ecommerce.order.client;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.ecommerce.order.dto.ProductResponse;
+
+/**
+ * Client interface for communicating with Product Service.
+ * 
+ * Same functional interface pattern as UserServiceClient. Lookups are always
+ * batched so a whole cart is priced with a single remote call.
+ */
+@FunctionalInterface
+public interface ProductServiceClient {
+    
+    /**
+     * Gets product details for many product IDs in one request.
+     * 
+     * @param ids Product IDs
+     * @return Products that exist; unknown IDs are simply missing from the list
+     */
+    List<ProductResponse> getProducts(Collection<Long> ids);
+}
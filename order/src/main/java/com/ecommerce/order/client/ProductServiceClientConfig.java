@@ -0,0 +1,47 @@
+package com.ecommerce.order.client;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.RestClient;
+
+import com.ecommerce.order.dto.ProductResponse;
+
+/**
+ * Configuration class for ProductServiceClient.
+ * Uses direct RestClient approach against the bulk endpoint GET /api/products?ids=...
+ */
+@Configuration
+public class ProductServiceClientConfig {
+    
+    private static final ParameterizedTypeReference<List<ProductResponse>> PRODUCT_LIST =
+            new ParameterizedTypeReference<>() {};
+    
+    @Bean
+    public ProductServiceClient productServiceClientInterface(RestClient.Builder restClientBuilder) {
+        
+        RestClient restClient = restClientBuilder
+                .baseUrl("http://product-service")
+                .build();
+        
+        return ids -> {
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            try {
+                List<ProductResponse> products = restClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/api/products")
+                        .queryParam("ids", ids.toArray())
+                        .build())
+                    .retrieve()
+                    .body(PRODUCT_LIST);
+                return products != null ? products : List.of();
+            } catch (Exception e) {
+                // Service unavailable, connection errors, etc. - throw exception for circuit breaker
+                throw new RuntimeException("Product service unavailable: " + e.getMessage(), e);
+            }
+        };
+    }
+}
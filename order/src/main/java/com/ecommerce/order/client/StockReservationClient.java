@@ -0,0 +1,40 @@
+package com.ecommerce.order.client;
+
+import java.util.List;
+
+import com.ecommerce.order.dto.ReservationItem;
+
+/**
+ * Client interface for the stock reservations of Product Service.
+ * 
+ * A reservation takes the stock for every item or for none. It is then either
+ * committed or released; if neither happens, Product Service gives the stock back
+ * when the reservation expires. Every call is idempotent: the caller picks the
+ * reservation ID, so a repeated reserve returns the same reservation.
+ */
+public interface StockReservationClient {
+    
+    /**
+     * Reserves stock for all items in one request.
+     * 
+     * @param reservationId New unique ID for the reservation
+     * @param items Product IDs and quantities
+     * @return false when any product is short, inactive or unknown
+     */
+    boolean reserve(String reservationId, List<ReservationItem> items);
+    
+    /**
+     * Makes the reservation permanent.
+     * 
+     * @param reservationId Reservation ID from reserve
+     * @return false if it was already released or expired
+     */
+    boolean commit(String reservationId);
+    
+    /**
+     * Gives the reserved stock back, also after a commit.
+     * 
+     * @param reservationId Reservation ID from reserve
+     */
+    void release(String reservationId);
+}
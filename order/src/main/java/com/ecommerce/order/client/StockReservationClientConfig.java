@@ -0,0 +1,77 @@
+package com.ecommerce.order.client;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import com.ecommerce.order.dto.ReservationItem;
+import com.ecommerce.order.dto.StockReservationResponse;
+
+/**
+ * Configuration class for StockReservationClient.
+ * Uses direct RestClient approach against /api/products/reservations.
+ * A 409 is a business answer (out of stock, already finished), not a failure.
+ */
+@Configuration
+public class StockReservationClientConfig {
+    
+    @Bean
+    public StockReservationClient stockReservationClientInterface(RestClient.Builder restClientBuilder) {
+        
+        RestClient restClient = restClientBuilder
+                .baseUrl("http://product-service")
+                .build();
+        
+        return new StockReservationClient() {
+            @Override
+            public boolean reserve(String reservationId, List<ReservationItem> items) {
+                try {
+                    StockReservationResponse reservation = restClient.post()
+                        .uri("/api/products/reservations")
+                        .body(Map.of("id", reservationId, "items", items))
+                        .retrieve()
+                        .body(StockReservationResponse.class);
+                    return reservation != null && reservationId.equals(reservation.getId());
+                } catch (HttpClientErrorException.Conflict e) {
+                    return false;
+                } catch (Exception e) {
+                    // Service unavailable, connection errors, etc. - throw exception for circuit breaker
+                    throw new RuntimeException("Product service unavailable: " + e.getMessage(), e);
+                }
+            }
+            
+            @Override
+            public boolean commit(String reservationId) {
+                try {
+                    restClient.post()
+                        .uri("/api/products/reservations/{id}/commit", reservationId)
+                        .retrieve()
+                        .toBodilessEntity();
+                    return true;
+                } catch (HttpClientErrorException.Conflict | HttpClientErrorException.NotFound e) {
+                    return false;
+                } catch (Exception e) {
+                    throw new RuntimeException("Product service unavailable: " + e.getMessage(), e);
+                }
+            }
+            
+            @Override
+            public void release(String reservationId) {
+                try {
+                    restClient.delete()
+                        .uri("/api/products/reservations/{id}", reservationId)
+                        .retrieve()
+                        .toBodilessEntity();
+                } catch (HttpClientErrorException.Conflict | HttpClientErrorException.NotFound e) {
+                    // Already committed, released or expired: nothing to give back
+                } catch (Exception e) {
+                    throw new RuntimeException("Product service unavailable: " + e.getMessage(), e);
+                }
+            }
+        };
+    }
+}
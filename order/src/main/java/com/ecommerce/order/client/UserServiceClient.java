@@ -12,10 +12,10 @@ import com.ecommerce.order.dto.UserResponse;
 public interface UserServiceClient {
     
     /**
-     * Gets user details by user ID.
+     * Checks a user exists by user ID.
      * 
      * @param id User ID (as String)
-     * @return UserResponse if user exists, null if user doesn't exist
+     * @return UserResponse with only the id set if user exists, null if user doesn't exist
      */
     UserResponse getUserDetails(String id);
 }
\ No newline at end of file
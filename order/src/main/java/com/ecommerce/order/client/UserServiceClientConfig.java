@@ -1,31 +1,46 @@
 package com.ecommerce.order.client;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestClient;
 
 import com.ecommerce.order.dto.UserResponse;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Configuration class for UserServiceClient.
- * Uses direct RestClient approach (no HTTP Interface adapter needed).
+ * Uses direct RestClient approach (no HTTP Interface adapter needed),
+ * wrapped in CachingUserServiceClient so repeated lookups skip the remote call.
  */
 @Configuration
 public class UserServiceClientConfig {
     
     @Bean
-    public UserServiceClient userServiceClientInterface(RestClient.Builder restClientBuilder) {
+    public UserServiceClient userServiceClientInterface(
+            RestClient.Builder restClientBuilder,
+            MeterRegistry meterRegistry,
+            @Value("${user-service.client.cache.ttl:5m}") Duration ttl,
+            @Value("${user-service.client.cache.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${user-service.client.cache.max-size:100000}") long maxSize) {
         
         RestClient restClient = restClientBuilder
                 .baseUrl("http://user-service")
                 .build();
         
-        return id -> {
+        UserServiceClient remoteClient = id -> {
             try {
-                return restClient.get()
+                // Only existence is checked, so a HEAD is enough: no document is read or sent
+                restClient.head()
                     .uri("/api/users/{id}", id)
                     .retrieve()
-                    .body(UserResponse.class);
+                    .toBodilessEntity();
+                UserResponse user = new UserResponse();
+                user.setId(id);
+                return user;
             } catch (org.springframework.web.client.HttpClientErrorException.NotFound e) {
                 // 404 - User not found (this is a valid business case, return null)
                 return null;
@@ -34,5 +49,7 @@ public class UserServiceClientConfig {
                 throw new RuntimeException("User service unavailable: " + e.getMessage(), e);
             }
         };
+        
+        return new CachingUserServiceClient(remoteClient, ttl, negativeTtl, maxSize, meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -26,10 +26,18 @@ public class RabbitMQConfig {
         return new TopicExchange(ORDER_EXCHANGE);
     }
     
+    // Dead-letter settings owned by notification-service; declared identically here,
+    // otherwise whichever service starts second fails with PRECONDITION_FAILED
+    public static final String NOTIFICATION_DLX = "notification.dlx";
+    public static final String NOTIFICATION_DLQ = "notification.dlq";
+
     // Create Queue for notifications
     @Bean
     public Queue notificationQueue() {
-        return QueueBuilder.durable(NOTIFICATION_QUEUE).build();
+        return QueueBuilder.durable(NOTIFICATION_QUEUE)
+            .deadLetterExchange(NOTIFICATION_DLX)
+            .deadLetterRoutingKey(NOTIFICATION_DLQ)
+            .build();
     }
     
     // Bind queue to exchange with routing key
@@ -8,6 +8,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -17,6 +18,10 @@ import java.util.List;
 
 import com.ecommerce.order.model.CartItem;
 import com.ecommerce.order.dto.CartItemRequest;
+import com.ecommerce.order.dto.CartOperation;
+import com.ecommerce.order.dto.CartOperationType;
+import com.ecommerce.order.dto.CartUpdateRequest;
+import com.ecommerce.order.dto.CartSummaryResponse;
 import com.ecommerce.order.service.CartService;
 import lombok.RequiredArgsConstructor;
 
@@ -49,6 +54,25 @@ public class CartController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
     
+    // Batch update: add/set/remove operations applied in order, all or none; returns the cart
+    @PutMapping("/items")
+    public ResponseEntity<List<CartItem>> updateCart(
+            @RequestHeader("X-User-Id") String userId,
+            @RequestBody CartUpdateRequest request) {
+        
+        if (!isValid(request)) {
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("Update cart request: userId={}, operations={}", userId, request.getOperations().size());
+        
+        return cartService.updateCart(userId, request.getOperations())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("Failed to update cart: userId={}, reason=product out of stock or user/product not found", userId);
+                    return ResponseEntity.badRequest().build();
+                });
+    }
+    
     @GetMapping
     public ResponseEntity<List<CartItem>> getCart(
             @RequestHeader("X-User-Id") String userId) {
@@ -59,6 +83,15 @@ public class CartController {
         return ResponseEntity.ok(cartItems);
     }
     
+    // Line count, item count and subtotal, read from the running totals
+    @GetMapping("/summary")
+    public ResponseEntity<CartSummaryResponse> getCartSummary(
+            @RequestHeader("X-User-Id") String userId) {
+        
+        logger.debug("Get cart summary request: userId={}", userId);
+        return ResponseEntity.ok(cartService.getCartSummary(userId));
+    }
+    
     @DeleteMapping("/items/{productId}")
     public ResponseEntity<Void> removeFromCart(
             @RequestHeader("X-User-Id") String userId,
@@ -76,4 +109,23 @@ public class CartController {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    private static boolean isValid(CartUpdateRequest request) {
+        if (request.getOperations() == null || request.getOperations().isEmpty()
+                || request.getOperations().size() > CartService.MAX_OPERATIONS) {
+            return false;
+        }
+        for (CartOperation operation : request.getOperations()) {
+            if (operation.getType() == null || operation.getProductId() == null) {
+                return false;
+            }
+            if (operation.getType() != CartOperationType.REMOVE) {
+                int minimum = operation.getType() == CartOperationType.ADD ? 1 : 0;
+                if (operation.getQuantity() == null || operation.getQuantity() < minimum) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
 }
\ No newline at end of file
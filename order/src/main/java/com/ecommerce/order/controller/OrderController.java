@@ -5,10 +5,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import com.ecommerce.order.dto.OrderPage;
 import com.ecommerce.order.dto.OrderResponse;
 import com.ecommerce.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
@@ -33,8 +36,19 @@ public class OrderController {
                     return new ResponseEntity<>(orderResponse, HttpStatus.CREATED);
                 })
                 .orElseGet(() -> {
-                    logger.warn("Order creation failed: userId={}, reason=empty cart", userId);
+                    logger.warn("Order creation failed: userId={}, reason=empty cart or items unavailable", userId);
                     return ResponseEntity.badRequest().build();
                 });
     }
+    
+    // Order history: /api/orders?cursor={nextCursor}&size={n}, newest first
+    @GetMapping
+    public ResponseEntity<OrderPage> getOrders(
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return orderService.getOrderHistory(userId, cursor, size)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.badRequest().build());
+    }
 }
\ No newline at end of file
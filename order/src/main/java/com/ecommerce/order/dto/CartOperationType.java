@@ -0,0 +1,7 @@
+package com.ecommerce.order.dto;
+
+public enum CartOperationType {
+    ADD,     // Add quantity to the line, creating it if needed
+    SET,     // Replace the line's quantity; 0 removes the line
+    REMOVE   // Remove the line if it exists
+}
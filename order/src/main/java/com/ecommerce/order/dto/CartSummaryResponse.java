@@ -0,0 +1,15 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSummaryResponse {
+    private int lineCount;         // Distinct products
+    private int itemCount;         // Sum of the quantities
+    private BigDecimal subtotal;   // At the prices the lines were added at
+}
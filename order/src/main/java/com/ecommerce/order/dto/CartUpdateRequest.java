@@ -0,0 +1,13 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartUpdateRequest {
+    private List<CartOperation> operations;   // Applied in order, all or none
+}
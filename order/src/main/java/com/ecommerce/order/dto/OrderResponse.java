@@ -7,6 +7,7 @@ import com.ecommerce.order.model.OrderStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -18,4 +19,9 @@ public class OrderResponse {
     private OrderStatus status;
     private List<OrderItemDTO> items;
     private LocalDateTime createdAt;
+    
+    // JPQL projection of the order row; the items are filled in from a second query
+    public OrderResponse(Long id, BigDecimal totalAmount, OrderStatus status, LocalDateTime createdAt) {
+        this(id, totalAmount, status, new ArrayList<>(), createdAt);
+    }
 }
\ No newline at end of file
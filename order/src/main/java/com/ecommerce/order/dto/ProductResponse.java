@@ -0,0 +1,32 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * DTO representing Product information from Product Service.
+ * 
+ * WHY NEEDED:
+ * - Order Service prices and stock-checks cart lines with data from Product Service
+ * - Need this class to deserialize JSON response into Java object
+ * - Must match the structure of ProductResponse in Product Service
+ * 
+ * PURPOSE:
+ * - Provides the current unit price for cart lines and orders
+ * - Provides available quantity and active flag for stock checks
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;        // Unit price
+    private Integer quantity;        // Units in stock
+    private String category;
+    private String imageUrl;
+    private boolean active;
+}
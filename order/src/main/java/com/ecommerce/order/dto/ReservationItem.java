@@ -0,0 +1,17 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a stock reservation in Product Service
+ * (POST /api/products/reservations).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationItem {
+    private Long productId;
+    private Integer quantity;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing a stock reservation from Product Service.
+ * Only the fields Order Service needs; the item list is ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+    private String id;
+    private String status;             // RESERVED, COMMITTED, RELEASED or EXPIRED
+    private LocalDateTime expiresAt;
+}
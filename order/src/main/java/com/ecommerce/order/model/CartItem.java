@@ -11,12 +11,18 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "cart_item", uniqueConstraints = {
+    // One line per product per user; its leading user_id also serves whole-cart reads
+    @UniqueConstraint(name = "uk_cart_item_user_product", columnNames = {"user_id", "product_id"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CartItem {
+    // Pooled sequence so the cart store's write-behind flush can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_seq")
+    @SequenceGenerator(name = "cart_item_seq", sequenceName = "cart_item_seq", allocationSize = 50)
     private Long id;
     
     // Changed to String to match MongoDB String IDs from User Service
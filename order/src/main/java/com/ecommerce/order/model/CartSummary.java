@@ -0,0 +1,26 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Running totals of one user's cart, adjusted by every add and remove so reading
+// them never touches the cart lines
+@Entity
+@Table(name = "cart_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSummary {
+    @Id
+    @Column(name = "user_id", length = 50)
+    private String userId;
+    
+    private int lineCount;
+    private int itemCount;
+    
+    // Sum of the line prices in minor units (cents)
+    @Column(name = "subtotal_minor")
+    private long subtotalMinor;
+}
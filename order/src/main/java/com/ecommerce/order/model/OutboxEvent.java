@@ -0,0 +1,45 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// Event waiting to be relayed to RabbitMQ; written in the same transaction as the order
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;     // Order ID
+    
+    @Column(name = "user_id", nullable = false, length = 50)
+    private String userId;
+    
+    // Position among the user's events; the relay publishes each user's events in this order
+    @Column(name = "user_seq", nullable = false)
+    private long userSeq;
+    
+    @Column(nullable = false)
+    private String exchange;
+    
+    @Column(name = "routing_key", nullable = false)
+    private String routingKey;
+    
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;       // JSON body
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
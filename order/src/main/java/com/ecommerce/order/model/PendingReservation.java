@@ -0,0 +1,49 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// A Product Service stock reservation not yet taken by a placed order; the order
+// transaction deletes the row, anything left is released
+@Entity
+@Table(name = "pending_stock_reservation")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingReservation implements Persistable<String> {
+    // Reservation ID, chosen here and sent with the reserve call
+    @Id
+    @Column(length = 36)
+    private String id;
+    
+    // Set once a release has started; the order can no longer take the reservation
+    @Column(nullable = false)
+    private boolean releasing;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Transient
+    private boolean persisted;
+    
+    public PendingReservation(String id, LocalDateTime createdAt) {
+        this.id = id;
+        this.createdAt = createdAt;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -3,19 +3,33 @@ package com.ecommerce.order.repository;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.ecommerce.order.model.CartItem;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     // Changed userId parameter to String
     Optional<CartItem> findByUserIdAndProductId(String userId, Long productId);
+
+    // Row-locked read for read-modify-write of a cart line
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CartItem c WHERE c.userId = :userId AND c.productId = :productId")
+    Optional<CartItem> findByUserIdAndProductIdForUpdate(@Param("userId") String userId,
+                                                         @Param("productId") Long productId);
     
     List<CartItem> findByUserId(String userId);  // Changed to String
     
+    // Row-locked read of the whole cart for a batch update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CartItem c WHERE c.userId = :userId")
+    List<CartItem> findByUserIdForUpdate(@Param("userId") String userId);
+    
     void deleteByUserIdAndProductId(String userId, Long productId);  // Changed to String
     
     //void deleteByUserId(String userId);  // Changed to String
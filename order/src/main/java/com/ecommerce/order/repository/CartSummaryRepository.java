@@ -0,0 +1,38 @@
+package com.ecommerce.order.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.ecommerce.order.model.CartSummary;
+
+@Repository
+public interface CartSummaryRepository extends JpaRepository<CartSummary, String> {
+    
+    // Atomic in-place adjustment, so concurrent changes to different lines of one cart
+    // both count; returns 0 when the user has no summary row yet
+    @Modifying
+    @Query("UPDATE CartSummary s SET s.lineCount = s.lineCount + :lines, s.itemCount = s.itemCount + :items, " +
+           "s.subtotalMinor = s.subtotalMinor + :subtotalMinor WHERE s.userId = :userId")
+    int applyDelta(@Param("userId") String userId,
+                   @Param("lines") int lines,
+                   @Param("items") int items,
+                   @Param("subtotalMinor") long subtotalMinor);
+    
+    // Standard SQL MERGE, so it runs on PostgreSQL and H2 alike; returns 0 when the row
+    // already exists
+    @Modifying
+    @Query(value = "MERGE INTO cart_summary s " +
+           "USING (SELECT CAST(:userId AS VARCHAR(50)) AS user_id) n ON s.user_id = n.user_id " +
+           "WHEN NOT MATCHED THEN INSERT (user_id, line_count, item_count, subtotal_minor) " +
+           "VALUES (n.user_id, :lineCount, :itemCount, :subtotalMinor)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") String userId,
+                       @Param("lineCount") int lineCount,
+                       @Param("itemCount") int itemCount,
+                       @Param("subtotalMinor") long subtotalMinor);
+    
+    @Modifying
+    @Query("DELETE FROM CartSummary s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.order.repository;
+
+import java.math.BigDecimal;
+
+// JPQL projection of an order item together with its order id, for grouping a page of orders
+public record OrderItemRow(Long orderId, Long id, Long productId, Integer quantity, BigDecimal price) {
+}
@@ -1,11 +1,42 @@
 package com.ecommerce.order.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.ecommerce.order.dto.OrderResponse;
 import com.ecommerce.order.model.Order;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    
+    // Order history, first page: newest orders of the user, read straight into DTOs
+    // from idx_orders_user_created without loading Order entities
+    @Query("SELECT new com.ecommerce.order.dto.OrderResponse(o.id, o.totalAmount, o.orderStatus, o.createdAt) " +
+           "FROM Order o WHERE o.userId = :userId " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderResponse> findOrderHistory(@Param("userId") String userId, Limit limit);
+    
+    // Order history, next pages: keyset seek past the last (createdAt, id) of the previous page
+    @Query("SELECT new com.ecommerce.order.dto.OrderResponse(o.id, o.totalAmount, o.orderStatus, o.createdAt) " +
+           "FROM Order o WHERE o.userId = :userId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderResponse> findOrderHistoryBefore(@Param("userId") String userId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Limit limit);
+    
+    // Items of a whole page of orders in one query (order_id is read from the item row, no join)
+    @Query("SELECT new com.ecommerce.order.repository.OrderItemRow(i.order.id, i.id, i.productId, i.quantity, i.price) " +
+           "FROM OrderItem i WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemRow> findItemRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+    
     // All CRUD methods automatically available:
     // - save(Order order)
     // - findById(Long id)
@@ -14,4 +45,4 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // - count()
     // - existsById(Long id)
     // - And many more!
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.order.repository;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.ecommerce.order.model.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Pending events, each user's in sequence order, locked so that relays on other
+    // instances wait instead of publishing the same rows twice. A user's events commit
+    // in sequence order, so the batch always holds the oldest pending events of a user
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.userId, e.userSeq, e.id")
+    List<OutboxEvent> findNextBatchForUpdate(Pageable pageable);
+    
+    // Standard SQL MERGE, so it runs on PostgreSQL and H2 alike; returns 0 when the row
+    // already exists. Runs in its own transaction when called without one
+    @Transactional
+    @Modifying
+    @Query(value = "MERGE INTO order_outbox_user u " +
+           "USING (SELECT CAST(:userId AS VARCHAR(50)) AS user_id) n ON u.user_id = n.user_id " +
+           "WHEN NOT MATCHED THEN INSERT (user_id, last_seq) VALUES (n.user_id, 0)", nativeQuery = true)
+    int insertUserSequenceIfAbsent(@Param("userId") String userId);
+    
+    // Row-locks the user's sequence until the caller's transaction ends; 0 when it has no row
+    @Modifying
+    @Query(value = "UPDATE order_outbox_user SET last_seq = last_seq + 1 WHERE user_id = :userId", nativeQuery = true)
+    int incrementUserSequence(@Param("userId") String userId);
+    
+    @Query(value = "SELECT last_seq FROM order_outbox_user WHERE user_id = :userId", nativeQuery = true)
+    long findUserSequence(@Param("userId") String userId);
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.order.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.ecommerce.order.model.PendingReservation;
+
+@Repository
+public interface PendingReservationRepository extends JpaRepository<PendingReservation, String> {
+    
+    // Taken by the order transaction; 0 when a release already started. The row lock makes
+    // this and markReleasing mutually exclusive: whichever comes second sees the first
+    @Modifying
+    @Query("DELETE FROM PendingReservation r WHERE r.id = :id AND r.releasing = false")
+    int claim(@Param("id") String id);
+    
+    // 0 when the row is gone, i.e. a placed order took the reservation
+    @Modifying
+    @Query("UPDATE PendingReservation r SET r.releasing = true WHERE r.id = :id")
+    int markReleasing(@Param("id") String id);
+    
+    @Query("SELECT r.id FROM PendingReservation r WHERE r.createdAt < :before ORDER BY r.createdAt")
+    List<String> findIdsByCreatedAtBefore(@Param("before") LocalDateTime before, Limit limit);
+}
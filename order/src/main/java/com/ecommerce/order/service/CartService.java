@@ -1,7 +1,8 @@
 package com.ecommerce.order.service;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,22 +10,33 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 
+import com.ecommerce.order.cart.CartChange;
+import com.ecommerce.order.cart.CartStore;
+import com.ecommerce.order.cart.MinorUnits;
 import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.model.CartSummary;
 import com.ecommerce.order.dto.CartItemRequest;
-import com.ecommerce.order.repository.CartItemRepository;
+import com.ecommerce.order.dto.CartOperation;
+import com.ecommerce.order.dto.CartOperationType;
+import com.ecommerce.order.dto.CartSummaryResponse;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.annotation.Timed;
 
 import com.ecommerce.order.client.UserServiceClient;
+import com.ecommerce.order.dto.ProductResponse;
 import com.ecommerce.order.dto.UserResponse;
 
 @Service
 @RequiredArgsConstructor
 public class CartService {
     private static final Logger logger = LoggerFactory.getLogger(CartService.class);
-    private final CartItemRepository cartItemRepository;
+    public static final int MAX_OPERATIONS = 100;
+    private final CartStore cartStore;
     private final UserServiceClient userServiceClient;
+    private final ProductLookupService productLookupService;
     
+    @Timed(value = "cart.add", description = "Time to add an item to a cart")
     @CircuitBreaker(name = "userService", fallbackMethod = "addToCartFallback")
     public boolean addToCart(String userId, CartItemRequest request) {
         logger.debug("Adding to cart: userId={}, productId={}, quantity={}", 
@@ -38,33 +50,34 @@ public class CartService {
             return false;
         }
         
-        // Check if cart item already exists
-        Optional<CartItem> existingCartItemOpt = cartItemRepository.findByUserIdAndProductId(
-            userId, 
-            request.getProductId()
+        // Current price and stock via Product Service
+        ProductResponse product = productLookupService.getProducts(List.of(request.getProductId()))
+            .get(request.getProductId());
+        
+        if (product == null || !product.isActive()) {
+            logger.warn("Product not found: productId={}", request.getProductId());
+            return false;
+        }
+        
+        // Merge into the existing line; the store checks stock against the merged quantity
+        int available = product.getQuantity() == null ? 0 : product.getQuantity();
+        Optional<CartItem> cartItemOpt = cartStore.addItem(
+            userId,
+            request.getProductId(),
+            request.getQuantity(),
+            product.getPrice(),
+            available
         );
         
-        if (existingCartItemOpt.isPresent()) {
-            CartItem existingCartItem = existingCartItemOpt.get();
-            int oldQuantity = existingCartItem.getQuantity();
-            existingCartItem.setQuantity(existingCartItem.getQuantity() + request.getQuantity());
-            existingCartItem.setPrice(BigDecimal.valueOf(100.00)
-                .multiply(BigDecimal.valueOf(existingCartItem.getQuantity())));
-            cartItemRepository.save(existingCartItem);
-            logger.info("Cart item quantity updated: userId={}, productId={}, oldQuantity={}, newQuantity={}", 
-                userId, request.getProductId(), oldQuantity, existingCartItem.getQuantity());
-        } else {
-            CartItem cartItem = new CartItem();
-            cartItem.setUserId(userId);
-            cartItem.setProductId(request.getProductId());
-            cartItem.setQuantity(request.getQuantity());
-            cartItem.setPrice(BigDecimal.valueOf(100.00)
-                .multiply(BigDecimal.valueOf(request.getQuantity())));
-            cartItemRepository.save(cartItem);
-            logger.info("New cart item added: userId={}, productId={}, quantity={}", 
-                userId, request.getProductId(), request.getQuantity());
+        if (cartItemOpt.isEmpty()) {
+            logger.warn("Product out of stock: productId={}, requested={}, available={}", 
+                request.getProductId(), request.getQuantity(), available);
+            return false;
         }
         
+        logger.info("Cart item added: userId={}, productId={}, added={}, quantity={}", 
+            userId, request.getProductId(), request.getQuantity(), cartItemOpt.get().getQuantity());
+        
         return true;
     }
 
@@ -75,19 +88,82 @@ public class CartService {
         return false; // Return false when user service is unavailable
     }
     
+    // Batch update: one user check, one product lookup and one store call for all operations.
+    // Empty when the user or a product is unknown or a line would exceed its stock
+    @Timed(value = "cart.update", description = "Time to apply a batch of cart operations")
+    @CircuitBreaker(name = "userService", fallbackMethod = "updateCartFallback")
+    public Optional<List<CartItem>> updateCart(String userId, List<CartOperation> operations) {
+        logger.debug("Updating cart: userId={}, operations={}", userId, operations.size());
+        
+        if (userServiceClient.getUserDetails(userId) == null) {
+            logger.warn("User not found: userId={}", userId);
+            return Optional.empty();
+        }
+        
+        List<Long> productIds = operations.stream()
+            .filter(operation -> !isRemoval(operation))
+            .map(CartOperation::getProductId)
+            .distinct()
+            .toList();
+        Map<Long, ProductResponse> products = productIds.isEmpty()
+            ? Map.of()
+            : productLookupService.getProducts(productIds);
+        
+        List<CartChange> changes = new ArrayList<>(operations.size());
+        for (CartOperation operation : operations) {
+            if (isRemoval(operation)) {
+                changes.add(new CartChange(CartOperationType.REMOVE, operation.getProductId(), 0, null, 0));
+                continue;
+            }
+            ProductResponse product = products.get(operation.getProductId());
+            if (product == null || !product.isActive()) {
+                logger.warn("Product not found: productId={}", operation.getProductId());
+                return Optional.empty();
+            }
+            int available = product.getQuantity() == null ? 0 : product.getQuantity();
+            changes.add(new CartChange(operation.getType(), operation.getProductId(), operation.getQuantity(),
+                product.getPrice(), available));
+        }
+        
+        Optional<List<CartItem>> cart = cartStore.applyChanges(userId, changes);
+        if (cart.isEmpty()) {
+            logger.warn("Cart update rejected: userId={}, reason=product out of stock", userId);
+        } else {
+            logger.info("Cart updated: userId={}, operations={}, lines={}", userId, operations.size(), cart.get().size());
+        }
+        return cart;
+    }
+    
+    // REMOVE, or SET to 0: needs no product price or stock
+    private static boolean isRemoval(CartOperation operation) {
+        return operation.getType() == CartOperationType.REMOVE
+            || operation.getType() == CartOperationType.SET && operation.getQuantity() == 0;
+    }
+    
+    // Fallback method when circuit breaker is open
+    public Optional<List<CartItem>> updateCartFallback(String userId, List<CartOperation> operations, Exception ex) {
+        logger.error("Circuit breaker opened for userService. Fallback triggered for userId={}, operations={}. Error: {}", 
+            userId, operations.size(), ex.getMessage());
+        return Optional.empty();
+    }
+    
     public List<CartItem> getCart(String userId) {
         logger.debug("Retrieving cart: userId={}", userId);
-        List<CartItem> cartItems = cartItemRepository.findByUserId(userId);
+        List<CartItem> cartItems = cartStore.getCart(userId);
         logger.debug("Cart items retrieved: userId={}, count={}", userId, cartItems.size());
         return cartItems;
     }
     
-    @Transactional
+    // Totals kept up to date by the cart store; reading them does not touch the lines
+    public CartSummaryResponse getCartSummary(String userId) {
+        CartSummary summary = cartStore.getSummary(userId);
+        return new CartSummaryResponse(summary.getLineCount(), summary.getItemCount(),
+            MinorUnits.toDecimal(summary.getSubtotalMinor()));
+    }
+    
     public boolean deleteItemFromCart(String userId, Long productId) {
         logger.debug("Deleting cart item: userId={}, productId={}", userId, productId);
-        Optional<CartItem> cartItemOpt = cartItemRepository.findByUserIdAndProductId(userId, productId);
-        if (cartItemOpt.isPresent()) {
-            cartItemRepository.delete(cartItemOpt.get());
+        if (cartStore.removeItem(userId, productId)) {
             logger.info("Cart item deleted: userId={}, productId={}", userId, productId);
             return true;
         }
@@ -95,9 +171,19 @@ public class CartService {
         return false;
     }
     
+    // Checkout step: takes the cart as one snapshot and empties it in the order's
+    // transaction, so lines added while the order is being placed are not lost
+    @Transactional
+    public List<CartItem> checkoutCart(String userId) {
+        logger.debug("Checking out cart: userId={}", userId);
+        List<CartItem> cartItems = cartStore.checkout(userId);
+        logger.debug("Cart checked out: userId={}, count={}", userId, cartItems.size());
+        return cartItems;
+    }
+    
     public void clearCart(String userId) {
     logger.debug("Clearing cart: userId={}", userId);
-    cartItemRepository.deleteByUserId(userId);
+    cartStore.clear(userId);
     logger.info("Cart cleared: userId={}", userId);
 }
 }
\ No newline at end of file
@@ -2,52 +2,93 @@ package com.ecommerce.order.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 
 import com.ecommerce.order.config.RabbitMQConfig;
 import com.ecommerce.order.dto.OrderCreatedEvent;
 import com.ecommerce.order.model.Order;
-import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 @RequiredArgsConstructor
 public class OrderEventPublisher {
     private static final Logger logger = LoggerFactory.getLogger(OrderEventPublisher.class);
-    private final RabbitTemplate rabbitTemplate;
-    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    // Writes the event to the outbox in the caller's transaction; OutboxRelay publishes it
+    // after commit, so checkout never waits on the broker and no event is lost on failure
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishOrderCreatedEvent(Order order) {
+        OrderCreatedEvent event = toEvent(order);
+
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateId(order.getId());
+        outboxEvent.setUserId(order.getUserId());
+        outboxEvent.setUserSeq(nextUserSeq(order.getUserId()));
+        outboxEvent.setExchange(RabbitMQConfig.ORDER_EXCHANGE);
+        outboxEvent.setRoutingKey(RabbitMQConfig.ORDER_CREATED_ROUTING_KEY);
+        outboxEvent.setPayload(toJson(event));
+        outboxEventRepository.save(outboxEvent);
+
+        logger.info("Order created event stored in outbox: orderId={}, userId={}",
+            order.getId(), order.getUserId());
+    }
+
+    // Creates the user's sequence row ahead of the order transaction, so two first orders of
+    // one user never race to insert it in there. Call without a transaction
+    public void prepareUserSequence(String userId) {
+        try {
+            outboxEventRepository.insertUserSequenceIfAbsent(userId);
+        } catch (DataIntegrityViolationException e) {
+            // Created by a concurrent checkout
+        }
+    }
+
+    // The UPDATE holds the user's sequence row until the order transaction ends, so the
+    // user's next order waits for this one and their events commit in sequence order.
+    // A rolled-back order gives its number back
+    private long nextUserSeq(String userId) {
+        if (outboxEventRepository.incrementUserSequence(userId) == 0) {
+            // prepareUserSequence was not called
+            outboxEventRepository.insertUserSequenceIfAbsent(userId);
+            outboxEventRepository.incrementUserSequence(userId);
+        }
+        return outboxEventRepository.findUserSequence(userId);
+    }
+
+    // Convert Order entity to OrderCreatedEvent DTO
+    static OrderCreatedEvent toEvent(Order order) {
+        return new OrderCreatedEvent(
+            order.getId(),
+            order.getUserId(),
+            order.getTotalAmount(),
+            order.getOrderStatus().toString(),
+            order.getCreatedAt(),
+            order.getItems().stream()
+                .map(item -> new OrderCreatedEvent.OrderItemEvent(
+                    item.getProductId(),
+                    item.getQuantity(),
+                    item.getPrice()
+                ))
+                .toList()
+        );
+    }
+
+    private String toJson(OrderCreatedEvent event) {
         try {
-            // Convert Order entity to OrderCreatedEvent DTO
-            OrderCreatedEvent event = new OrderCreatedEvent(
-                order.getId(),
-                order.getUserId(),
-                order.getTotalAmount(),
-                order.getOrderStatus().toString(),
-                order.getCreatedAt(),
-                order.getItems().stream()
-                    .map(item -> new OrderCreatedEvent.OrderItemEvent(
-                        item.getProductId(),
-                        item.getQuantity(),
-                        item.getPrice()
-                    ))
-                    .toList()
-            );
-            
-            // Publish to RabbitMQ
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.ORDER_EXCHANGE,
-                RabbitMQConfig.ORDER_CREATED_ROUTING_KEY,
-                event
-            );
-            
-            logger.info("Order created event published: orderId={}, userId={}", 
-                order.getId(), order.getUserId());
-        } catch (Exception e) {
-            logger.error("Failed to publish order created event: orderId={}, error={}", 
-                order.getId(), e.getMessage(), e);
-            // Don't throw exception - order is already saved, notification failure shouldn't fail order
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            // Fails the order transaction rather than silently dropping the event
+            throw new IllegalStateException("Could not serialize order created event: orderId="
+                + event.getOrderId(), e);
         }
     }
-}
\ No newline at end of file
+}
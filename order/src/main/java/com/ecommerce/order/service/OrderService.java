@@ -1,21 +1,35 @@
 package com.ecommerce.order.service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.RequiredArgsConstructor;
 
+import io.micrometer.core.annotation.Timed;
+
+import com.ecommerce.order.cart.MinorUnits;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderItem;
 import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.dto.OrderPage;
 import com.ecommerce.order.dto.OrderResponse;
 import com.ecommerce.order.dto.OrderItemDTO;
+import com.ecommerce.order.dto.ProductResponse;
+import com.ecommerce.order.repository.OrderItemRow;
 import com.ecommerce.order.repository.OrderRepository;
 import com.ecommerce.order.model.CartItem;
 import com.ecommerce.order.service.CartService;
@@ -24,14 +38,19 @@ import com.ecommerce.order.service.CartService;
 @RequiredArgsConstructor
 public class OrderService {
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final int MAX_PAGE_SIZE = 100;
     private final OrderRepository orderRepository;
     private final CartService cartService;
     private final OrderEventPublisher orderEventPublisher;
+    private final ProductLookupService productLookupService;
+    private final StockReservationService stockReservationService;
+    private final TransactionTemplate transactionTemplate;
     
-    @Transactional
+    @Timed(value = "order.create", description = "Time to place an order from a cart")
 public Optional<OrderResponse> createOrder(String userId) {
     logger.debug("Creating order for userId: {}", userId);
     
+    // Read outside any transaction: nothing below holds a connection while it waits on Product Service
     List<CartItem> cartItems = cartService.getCart(userId);
     if (cartItems.isEmpty()) {
         logger.warn("Order creation failed: userId={}, reason=cart is empty", userId);
@@ -40,42 +59,68 @@ public Optional<OrderResponse> createOrder(String userId) {
 
     logger.debug("Cart items found for userId={}: {}", userId, cartItems.size());
     
-    // Calculate total price from cart items
-    BigDecimal totalPrice = cartItems.stream()
-            .map(CartItem::getPrice)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // Price and stock-check the whole cart with a single call to Product Service
+    Map<Long, ProductResponse> products = productLookupService.getProducts(
+            cartItems.stream().map(CartItem::getProductId).toList());
+    for (CartItem item : cartItems) {
+        ProductResponse product = products.get(item.getProductId());
+        if (product == null || !product.isActive()
+                || product.getQuantity() == null || product.getQuantity() < item.getQuantity()) {
+            logger.warn("Order creation failed: userId={}, productId={}, reason=product unavailable or out of stock", 
+                userId, item.getProductId());
+            return Optional.empty();
+        }
+    }
     
-    // Create order
-    Order order = new Order();
-    order.setUserId(userId);
-    order.setTotalAmount(totalPrice);
-    order.setOrderStatus(OrderStatus.CONFIRMED);
+    // Take the stock for the whole cart; the check above only read a snapshot, this cannot oversell.
+    // The reservation is already committed, so its ttl cannot give the stock back under the order
+    Optional<String> reservationId = stockReservationService.reserve(cartItems);
+    if (reservationId.isEmpty()) {
+        logger.warn("Order creation failed: userId={}, reason=stock reservation rejected", userId);
+        return Optional.empty();
+    }
     
-    // Convert cart items to order items
-    List<OrderItem> orderItems = cartItems.stream()
-            .map(item -> {
-                OrderItem orderItem = new OrderItem();
-                orderItem.setProductId(item.getProductId());
-                orderItem.setQuantity(item.getQuantity());
-                orderItem.setPrice(item.getPrice());
-                orderItem.setOrder(order);
-                return orderItem;
-            })
-            .collect(Collectors.toList());
+    try {
+        orderEventPublisher.prepareUserSequence(userId);
+        Optional<OrderResponse> order = transactionTemplate.execute(
+            status -> placeOrder(userId, reservationId.get(), cartItems, products, status));
+        if (order.isEmpty()) {
+            stockReservationService.release(reservationId.get());
+        }
+        return order;
+    } catch (RuntimeException e) {
+        stockReservationService.release(reservationId.get());
+        throw e;
+    }
+}
     
-    order.setItems(orderItems);
+    // The order transaction: empties the cart, takes the reservation and saves the order.
+    // Empty (and rolled back) when the cart changed since it was reserved
+    private Optional<OrderResponse> placeOrder(String userId, String reservationId, List<CartItem> reservedItems,
+                                               Map<Long, ProductResponse> products, TransactionStatus status) {
+    // Reads and removes the cart lines in one step; rolled back together with the order
+    List<CartItem> cartItems = cartService.checkoutCart(userId);
+    if (!StockReservationService.toItems(cartItems).equals(StockReservationService.toItems(reservedItems))) {
+        logger.warn("Order creation failed: userId={}, reason=cart changed during checkout", userId);
+        status.setRollbackOnly();
+        return Optional.empty();
+    }
+    if (!stockReservationService.claim(reservationId)) {
+        logger.warn("Order creation failed: userId={}, reason=stock reservation already released", userId);
+        status.setRollbackOnly();
+        return Optional.empty();
+    }
+    
+    Order order = buildOrder(userId, cartItems, products);
     
     try {
-        // Save order (cascade will save order items)
-        Order savedOrder = orderRepository.save(order);
+        // Save order (cascade will save order items). Flushing here writes the order and
+        // its items as JDBC batches and fills in createdAt before the event is built
+        Order savedOrder = orderRepository.saveAndFlush(order);
         logger.info("Order saved successfully: orderId={}, userId={}, totalAmount={}", 
             savedOrder.getId(), userId, savedOrder.getTotalAmount());
-        
-        // Clear the cart after order is placed
-        cartService.clearCart(userId);
-        logger.debug("Cart cleared for userId: {}", userId);
 
-        // Publish order created event asynchronously
+        // Record order created event in the outbox (same transaction, relayed by OutboxRelay)
         orderEventPublisher.publishOrderCreatedEvent(savedOrder);
         
         // Convert Order to OrderResponse
@@ -85,8 +130,77 @@ public Optional<OrderResponse> createOrder(String userId) {
         throw e; // Re-throw to maintain transaction rollback
     }
 }
+    // Get one keyset page of the user's orders, newest first, starting after the cursor.
+    // Two queries per page whatever its size: the order rows, then all their items.
+    // Empty when the cursor is malformed
+    @Transactional(readOnly = true)
+    public Optional<OrderPage> getOrderHistory(String userId, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderResponse> orders;
+        if (cursor == null) {
+            orders = orderRepository.findOrderHistory(userId, limit);
+        } else {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                orders = orderRepository.findOrderHistoryBefore(userId,
+                        LocalDateTime.parse(cursor.substring(0, Math.max(separator, 0))),
+                        Long.valueOf(cursor.substring(separator + 1)),
+                        limit);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+        
+        boolean hasMore = orders.size() > pageSize;
+        List<OrderResponse> page = hasMore ? orders.subList(0, pageSize) : orders;
+        if (!page.isEmpty()) {
+            Map<Long, OrderResponse> byId = page.stream()
+                    .collect(Collectors.toMap(OrderResponse::getId, Function.identity()));
+            for (OrderItemRow row : orderRepository.findItemRowsByOrderIds(byId.keySet())) {
+                byId.get(row.orderId()).getItems().add(
+                        mapToOrderItemDTO(row.id(), row.productId(), row.quantity(), row.price()));
+            }
+        }
+        
+        // Cursor is the last order's (createdAt, id), e.g. 2024-05-01T10:15:30.123456_42
+        String nextCursor = null;
+        if (hasMore) {
+            OrderResponse last = page.get(page.size() - 1);
+            nextCursor = last.getCreatedAt() + "_" + last.getId();
+        }
+        return Optional.of(new OrderPage(List.copyOf(page), nextCursor));
+    }
+    
+    // Builds the order from the checked-out cart at the current product prices
+    Order buildOrder(String userId, List<CartItem> cartItems, Map<Long, ProductResponse> products) {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setOrderStatus(OrderStatus.CONFIRMED);
+        
+        // Convert cart items to order items at the current product price, totalling
+        // in minor units so each line costs one BigDecimal instead of a chain of them
+        List<OrderItem> orderItems = new ArrayList<>(cartItems.size());
+        long totalMinor = 0;
+        for (CartItem item : cartItems) {
+            long lineMinor = MinorUnits.of(products.get(item.getProductId()).getPrice()) * item.getQuantity();
+            totalMinor += lineMinor;
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProductId(item.getProductId());
+            orderItem.setQuantity(item.getQuantity());
+            orderItem.setPrice(MinorUnits.toDecimal(lineMinor));
+            orderItem.setOrder(order);
+            orderItems.add(orderItem);
+        }
+        
+        order.setTotalAmount(MinorUnits.toDecimal(totalMinor));
+        order.setItems(orderItems);
+        return order;
+    }
+    
     // Helper method: Convert Order entity to OrderResponse DTO
-    private OrderResponse mapToOrderResponse(Order order) {
+    OrderResponse mapToOrderResponse(Order order) {
         List<OrderItem> items = order.getItems();
         if (items == null || items.isEmpty()) {
             return new OrderResponse(
@@ -99,13 +213,8 @@ public Optional<OrderResponse> createOrder(String userId) {
         }
         
         List<OrderItemDTO> orderItemDTOs = items.stream()
-                .map(item -> new OrderItemDTO(
-                        item.getId(),
-                        item.getProductId(),
-                        item.getQuantity(),
-                        item.getPrice(),
-                        item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()))
-                ))
+                .map(item -> mapToOrderItemDTO(
+                        item.getId(), item.getProductId(), item.getQuantity(), item.getPrice()))
                 .collect(Collectors.toList());
         
         return new OrderResponse(
@@ -116,6 +225,10 @@ public Optional<OrderResponse> createOrder(String userId) {
                 order.getCreatedAt()
         );
     }
+    
+    private static OrderItemDTO mapToOrderItemDTO(Long id, Long productId, Integer quantity, BigDecimal price) {
+        return new OrderItemDTO(id, productId, quantity, price, price.multiply(BigDecimal.valueOf(quantity)));
+    }
 
     
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.ecommerce.order.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Background relay that drains the order outbox to RabbitMQ, keeping each user's
+ * events in commit order.
+ *
+ * Every event carries its position among the user's events (user_seq), taken under
+ * a row lock in the order transaction, so a user's events commit in that order. Each
+ * run locks a batch of pending events, each user's oldest first, and publishes it on
+ * one channel in rounds of at most one event per user, waiting for publisher
+ * confirms after every round. A user's event is only sent once the one before it is
+ * confirmed. The first round the broker does not confirm ends the batch: the
+ * confirmed events are deleted, and that round and the rest stay in the outbox for
+ * the next run. Delivery is at-least-once; consumers de-duplicate on the AMQP message
+ * id (the outbox id).
+ */
+@Component
+@ConditionalOnProperty(name = "order.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter published;
+    private final Counter failures;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${order.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${order.outbox.relay.confirm-timeout:5s}") Duration confirmTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+
+        Gauge.builder("order.outbox.backlog", backlog, AtomicLong::get)
+            .description("Events waiting in the outbox")
+            .register(meterRegistry);
+        TimeGauge.builder("order.outbox.relay.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+            .description("Age of the oldest event waiting in the outbox")
+            .register(meterRegistry);
+        this.published = Counter.builder("order.outbox.published").register(meterRegistry);
+        this.failures = Counter.builder("order.outbox.publish.failures").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay.interval-ms:500}")
+    public void relay() {
+        try {
+            // Keep draining while batches come back full
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+            backlog.set(outboxEventRepository.count());
+        } catch (Exception e) {
+            failures.increment();
+            logger.error("Outbox relay failed, batch will be retried: error={}", e.getMessage(), e);
+        }
+    }
+
+    private int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.findNextBatchForUpdate(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                lagMillis.set(0);
+                return 0;
+            }
+            batch.stream()
+                .map(OutboxEvent::getCreatedAt)
+                .min(Comparator.naturalOrder())
+                .ifPresent(oldest -> lagMillis.set(Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis())));
+
+            List<OutboxEvent> confirmed = publishInUserOrder(batch);
+            if (!confirmed.isEmpty()) {
+                outboxEventRepository.deleteAllInBatch(confirmed);
+                published.increment(confirmed.size());
+            }
+            if (confirmed.size() < batch.size()) {
+                failures.increment();
+                logger.warn("Outbox batch not fully confirmed, the rest will be retried: confirmed={}, pending={}",
+                    confirmed.size(), batch.size() - confirmed.size());
+                return confirmed.size();
+            }
+            logger.debug("Outbox batch relayed: count={}", batch.size());
+            return batch.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    // Round k holds the k-th event of every user in the batch. Returns the events of the
+    // rounds the broker confirmed, up to the first one it did not
+    private List<OutboxEvent> publishInUserOrder(List<OutboxEvent> batch) {
+        Map<String, Deque<OutboxEvent>> byUser = new LinkedHashMap<>();
+        batch.forEach(event -> byUser.computeIfAbsent(event.getUserId(), userId -> new ArrayDeque<>()).add(event));
+
+        List<OutboxEvent> confirmed = new ArrayList<>(batch.size());
+        rabbitTemplate.invoke(operations -> {
+            while (!byUser.isEmpty()) {
+                List<OutboxEvent> round = new ArrayList<>(byUser.size());
+                Iterator<Deque<OutboxEvent>> users = byUser.values().iterator();
+                while (users.hasNext()) {
+                    Deque<OutboxEvent> events = users.next();
+                    round.add(events.poll());
+                    if (events.isEmpty()) {
+                        users.remove();
+                    }
+                }
+                if (!publish(operations, round)) {
+                    break;
+                }
+                confirmed.addAll(round);
+            }
+            return null;
+        });
+        return confirmed;
+    }
+
+    private boolean publish(RabbitOperations operations, List<OutboxEvent> round) {
+        try {
+            for (OutboxEvent event : round) {
+                operations.send(event.getExchange(), event.getRoutingKey(), toMessage(event));
+            }
+            if (operations.waitForConfirms(confirmTimeout.toMillis())) {
+                return true;
+            }
+            logger.warn("Outbox events not confirmed by the broker: count={}", round.size());
+        } catch (AmqpException e) {
+            logger.warn("Outbox publish failed: count={}, error={}", round.size(), e.getMessage());
+        }
+        return false;
+    }
+
+    private static Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setMessageId(String.valueOf(event.getId()));
+        return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.order.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import lombok.RequiredArgsConstructor;
+
+import com.ecommerce.order.client.ProductServiceClient;
+import com.ecommerce.order.dto.ProductResponse;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+
+@Service
+@RequiredArgsConstructor
+public class ProductLookupService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductLookupService.class);
+    private final ProductServiceClient productServiceClient;
+    
+    // One remote call for the whole set of ids, guarded by the productService circuit breaker
+    @CircuitBreaker(name = "productService", fallbackMethod = "getProductsFallback")
+    public Map<Long, ProductResponse> getProducts(Collection<Long> productIds) {
+        logger.debug("Fetching products: count={}", productIds.size());
+        return productServiceClient.getProducts(productIds)
+                .stream()
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+    }
+    
+    // Fallback method when circuit breaker is open: no product is treated as available
+    public Map<Long, ProductResponse> getProductsFallback(Collection<Long> productIds, Exception ex) {
+        logger.error("Circuit breaker opened for productService. Fallback triggered for {} products. Error: {}", 
+            productIds.size(), ex.getMessage());
+        return Map.of();
+    }
+}
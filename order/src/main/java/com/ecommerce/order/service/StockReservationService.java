@@ -0,0 +1,127 @@
+package com.ecommerce.order.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.order.client.StockReservationClient;
+import com.ecommerce.order.dto.ReservationItem;
+import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.model.PendingReservation;
+import com.ecommerce.order.repository.PendingReservationRepository;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+
+/**
+ * Stock for an order: reserved and committed in Product Service before the order
+ * transaction starts, so no database connection is held across the calls and the
+ * reservation's ttl can never give back stock of a placed order.
+ *
+ * The reservation ID is recorded in pending_stock_reservation first. The order
+ * transaction claims (deletes) that row; a reservation whose order was not placed is
+ * released right away, or by releaseAbandoned once it is older than release-after.
+ * Claim and release exclude each other on the row, so an order is never placed on
+ * stock that is being given back.
+ */
+@Service
+public class StockReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+    private static final int RELEASE_BATCH_SIZE = 100;
+
+    private final StockReservationClient stockReservationClient;
+    private final PendingReservationRepository pendingReservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration releaseAfter;
+
+    public StockReservationService(StockReservationClient stockReservationClient,
+                                   PendingReservationRepository pendingReservationRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${stock.reservation.release-after:1m}") Duration releaseAfter) {
+        this.stockReservationClient = stockReservationClient;
+        this.pendingReservationRepository = pendingReservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.releaseAfter = releaseAfter;
+    }
+
+    // Reserves and commits stock for the whole cart, guarded by the productService circuit breaker.
+    // Empty when any product is short; the caller then has nothing to release
+    @CircuitBreaker(name = "productService", fallbackMethod = "reserveFallback")
+    public Optional<String> reserve(List<CartItem> cartItems) {
+        String reservationId = UUID.randomUUID().toString();
+        transactionTemplate.executeWithoutResult(status -> pendingReservationRepository.save(
+            new PendingReservation(reservationId, LocalDateTime.now())));
+
+        if (!stockReservationClient.reserve(reservationId, toItems(cartItems))
+                || !stockReservationClient.commit(reservationId)) {
+            release(reservationId);
+            return Optional.empty();
+        }
+        return Optional.of(reservationId);
+    }
+
+    // Fallback method when circuit breaker is open or a call failed: nothing is reserved.
+    // A reservation the failed call may still have made is released by releaseAbandoned
+    public Optional<String> reserveFallback(List<CartItem> cartItems, Exception ex) {
+        logger.error("Circuit breaker opened for productService. Stock reservation fallback triggered for {} lines. Error: {}",
+            cartItems.size(), ex.getMessage());
+        return Optional.empty();
+    }
+
+    // Takes the reservation for the order being placed; false when it is already being
+    // released, in which case the order transaction must roll back
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(String reservationId) {
+        return pendingReservationRepository.claim(reservationId) == 1;
+    }
+
+    // Gives the stock back unless a placed order claimed it. A failed call is only logged:
+    // the row stays and releaseAbandoned tries again
+    public void release(String reservationId) {
+        try {
+            Integer marked = transactionTemplate.execute(status -> pendingReservationRepository.markReleasing(reservationId));
+            if (marked == null || marked == 0) {
+                return;
+            }
+            stockReservationClient.release(reservationId);
+            transactionTemplate.executeWithoutResult(status -> pendingReservationRepository.deleteById(reservationId));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release stock reservation, will retry: reservationId={}, error={}",
+                reservationId, e.getMessage());
+        }
+    }
+
+    // Reservations whose order was neither placed nor released, e.g. after a crash
+    @Scheduled(fixedDelayString = "${stock.reservation.release-interval-ms:30000}")
+    public void releaseAbandoned() {
+        List<String> ids = pendingReservationRepository.findIdsByCreatedAtBefore(
+            LocalDateTime.now().minus(releaseAfter), Limit.of(RELEASE_BATCH_SIZE));
+        ids.forEach(this::release);
+        if (!ids.isEmpty()) {
+            logger.info("Released abandoned stock reservations: count={}", ids.size());
+        }
+    }
+
+    // One item per product, in id order
+    static List<ReservationItem> toItems(List<CartItem> cartItems) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        cartItems.forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+        return quantities.entrySet().stream()
+                .map(entry -> new ReservationItem(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,67 @@
+-- Order service schema. Hibernate only validates it (ddl-auto: validate), so every
+-- entity change needs a new V<n>__<description>.sql next to this one.
+-- Kept to SQL that runs on both PostgreSQL and the H2 database used by the tests.
+
+-- Pooled sequences: allocationSize = 50 on the entities, so inserts can be batched
+CREATE SEQUENCE cart_item_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_item_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE cart_item (
+    id          BIGINT         NOT NULL,
+    user_id     VARCHAR(50)    NOT NULL,
+    product_id  BIGINT         NOT NULL,
+    quantity    INTEGER,
+    price       NUMERIC(38, 2),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT pk_cart_item PRIMARY KEY (id),
+    -- One line per product; also serves the whole-cart reads on user_id alone
+    CONSTRAINT uk_cart_item_user_product UNIQUE (user_id, product_id)
+);
+
+CREATE TABLE cart_summary (
+    user_id         VARCHAR(50)  NOT NULL,
+    line_count      INTEGER      NOT NULL,
+    item_count      INTEGER      NOT NULL,
+    subtotal_minor  BIGINT       NOT NULL,
+    CONSTRAINT pk_cart_summary PRIMARY KEY (user_id)
+);
+
+CREATE TABLE orders (
+    id            BIGINT         NOT NULL,
+    user_id       VARCHAR(50)    NOT NULL,
+    total_amount  NUMERIC(38, 2),
+    order_status  VARCHAR(255),
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6),
+    CONSTRAINT pk_orders PRIMARY KEY (id)
+);
+
+-- Order history: newest orders of a user, keyset on (created_at, id)
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at, id);
+
+CREATE TABLE order_item (
+    id          BIGINT         NOT NULL,
+    order_id    BIGINT         NOT NULL,
+    product_id  BIGINT         NOT NULL,
+    quantity    INTEGER,
+    price       NUMERIC(38, 2),
+    CONSTRAINT pk_order_item PRIMARY KEY (id),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES orders (id)
+);
+
+CREATE INDEX idx_order_item_order ON order_item (order_id);
+
+-- Transactional outbox; the relay reads it in id order and deletes what it published
+CREATE TABLE order_outbox (
+    id            BIGINT        NOT NULL,
+    aggregate_id  BIGINT        NOT NULL,
+    user_id       VARCHAR(50)   NOT NULL,
+    exchange      VARCHAR(255)  NOT NULL,
+    routing_key   VARCHAR(255)  NOT NULL,
+    payload       TEXT          NOT NULL,
+    created_at    TIMESTAMP(6),
+    CONSTRAINT pk_order_outbox PRIMARY KEY (id)
+);
@@ -0,0 +1,11 @@
+-- Stock reservations made for an order that is not placed yet. The order transaction
+-- deletes its row; rows left behind are released by StockReservationService.
+CREATE TABLE pending_stock_reservation (
+    id          VARCHAR(36)   NOT NULL,
+    releasing   BOOLEAN       NOT NULL,
+    created_at  TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT pk_pending_stock_reservation PRIMARY KEY (id)
+);
+
+-- Release job: oldest abandoned reservations first
+CREATE INDEX idx_pending_stock_reservation_created ON pending_stock_reservation (created_at);
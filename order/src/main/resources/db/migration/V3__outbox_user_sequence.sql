@@ -0,0 +1,14 @@
+-- Per-user event numbers for the outbox. An order transaction takes the user's next
+-- number with an UPDATE on order_outbox_user, whose row lock makes a user's events
+-- commit in number order; OutboxRelay publishes them in that order.
+CREATE TABLE order_outbox_user (
+    user_id   VARCHAR(50)  NOT NULL,
+    last_seq  BIGINT       NOT NULL,
+    CONSTRAINT pk_order_outbox_user PRIMARY KEY (user_id)
+);
+
+-- Events pending at upgrade keep their id order, ahead of every numbered event
+ALTER TABLE order_outbox ADD COLUMN user_seq BIGINT DEFAULT 0 NOT NULL;
+
+-- Relay batch: each user's events in number order
+CREATE INDEX idx_order_outbox_user_seq ON order_outbox (user_id, user_seq, id);
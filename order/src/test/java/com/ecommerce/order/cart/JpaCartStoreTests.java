@@ -0,0 +1,198 @@
+package com.ecommerce.order.cart;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.doReturn;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.order.dto.CartOperationType;
+import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.model.CartSummary;
+import com.ecommerce.order.repository.CartItemRepository;
+import com.ecommerce.order.repository.CartSummaryRepository;
+
+/**
+ * Behaviour of the database-backed cart store. Runs without a test transaction, so
+ * every store call commits on its own like it does behind CartService.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Import(JpaCartStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaCartStoreTests {
+    private static final BigDecimal PRICE = new BigDecimal("2.50");
+
+    @Autowired
+    private JpaCartStore cartStore;
+
+    @SpyBean
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CartSummaryRepository cartSummaryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void addItemMergesIntoTheExistingLine() {
+        String userId = newUser();
+        cartStore.addItem(userId, 1L, 2, PRICE, 10);
+        CartItem merged = cartStore.addItem(userId, 1L, 3, PRICE, 10).orElseThrow();
+
+        assertThat(merged.getQuantity()).isEqualTo(5);
+        assertThat(merged.getPrice()).isEqualByComparingTo("12.50");
+        assertThat(cartItemRepository.findByUserId(userId)).hasSize(1);
+    }
+
+    @Test
+    void addItemBeyondStockChangesNothing() {
+        String userId = newUser();
+        cartStore.addItem(userId, 1L, 8, PRICE, 10);
+
+        assertThat(cartStore.addItem(userId, 1L, 3, PRICE, 10)).isEmpty();
+        assertThat(cartItemRepository.findByUserId(userId))
+            .singleElement()
+            .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(8));
+    }
+
+    // A concurrent first add committed the line after this add's locked read found none:
+    // the insert fails on uk_cart_item_user_product and the retry merges into that line
+    @Test
+    void lostFirstAddRaceIsRetriedAsAMerge() {
+        String userId = newUser();
+        cartStore.addItem(userId, 1L, 2, PRICE, 10);
+        doReturn(Optional.empty()).doCallRealMethod()
+            .when(cartItemRepository).findByUserIdAndProductIdForUpdate(userId, 1L);
+
+        CartItem merged = cartStore.addItem(userId, 1L, 3, PRICE, 10).orElseThrow();
+
+        assertThat(merged.getQuantity()).isEqualTo(5);
+        assertThat(cartItemRepository.findByUserId(userId))
+            .singleElement()
+            .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(5));
+    }
+
+    @Test
+    void lostBatchUpdateRaceIsRetriedAsAMerge() {
+        String userId = newUser();
+        cartStore.addItem(userId, 1L, 2, PRICE, 10);
+        doReturn(List.of()).doCallRealMethod()
+            .when(cartItemRepository).findByUserIdForUpdate(userId);
+
+        List<CartItem> cart = cartStore.applyChanges(userId, List.of(add(1L, 3), add(2L, 1))).orElseThrow();
+
+        assertThat(cart).extracting(CartItem::getProductId, CartItem::getQuantity)
+            .containsExactly(tuple(1L, 5), tuple(2L, 1));
+        assertThat(cartItemRepository.findByUserId(userId)).hasSize(2);
+    }
+
+    @Test
+    void rejectedBatchUpdateChangesNothing() {
+        String userId = newUser();
+        cartStore.addItem(userId, 1L, 2, PRICE, 10);
+
+        assertThat(cartStore.applyChanges(userId, List.of(
+            new CartChange(CartOperationType.REMOVE, 1L, 0, null, 0),
+            add(2L, 11)))).isEmpty();
+        assertThat(cartItemRepository.findByUserId(userId))
+            .singleElement()
+            .satisfies(item -> assertThat(item.getProductId()).isEqualTo(1L));
+    }
+
+    @Test
+    void removeItemDeletesOnlyThatLine() {
+        String userId = newUser();
+        cartStore.addItem(userId, 1L, 1, PRICE, 10);
+        cartStore.addItem(userId, 2L, 1, PRICE, 10);
+
+        assertThat(cartStore.removeItem(userId, 1L)).isTrue();
+        assertThat(cartStore.removeItem(userId, 1L)).isFalse();
+        assertThat(cartItemRepository.findByUserId(userId))
+            .extracting(CartItem::getProductId)
+            .containsExactly(2L);
+    }
+
+    @Test
+    void summaryFollowsEveryChange() {
+        String userId = newUser();
+        cartStore.addItem(userId, 1L, 2, PRICE, 10);
+        cartStore.addItem(userId, 2L, 1, PRICE, 10);
+        cartStore.addItem(userId, 1L, 3, new BigDecimal("3.00"), 10);
+        assertSummaryMatchesLines(userId);
+
+        cartStore.removeItem(userId, 2L);
+        assertSummaryMatchesLines(userId);
+
+        cartStore.applyChanges(userId, List.of(
+            new CartChange(CartOperationType.REMOVE, 1L, 0, null, 0),
+            add(3L, 4),
+            add(4L, 1))).orElseThrow();
+        assertSummaryMatchesLines(userId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> cartStore.checkout(userId));
+        assertSummaryMatchesLines(userId);
+
+        cartStore.addItem(userId, 5L, 2, PRICE, 10);
+        cartStore.clear(userId);
+        assertSummaryMatchesLines(userId);
+    }
+
+    // A cart from before summaries were added: its first change creates the row from
+    // every line, the changed one included, without counting the change twice
+    @Test
+    void firstChangeOfACartWithoutSummarySeedsItFromTheLines() {
+        String userId = newUser();
+        cartItemRepository.saveAll(List.of(
+            new CartItem(null, userId, 1L, 2, new BigDecimal("5.00"), null, null),
+            new CartItem(null, userId, 2L, 1, PRICE, null, null)));
+
+        cartStore.addItem(userId, 1L, 1, PRICE, 10);
+
+        assertSummaryMatchesLines(userId);
+        assertThat(cartSummaryRepository.findById(userId))
+            .hasValueSatisfying(summary -> assertThat(summary.getItemCount()).isEqualTo(4));
+    }
+
+    @Test
+    void removeFromACartWithoutSummarySeedsItFromTheRemainingLines() {
+        String userId = newUser();
+        cartItemRepository.saveAll(List.of(
+            new CartItem(null, userId, 1L, 2, new BigDecimal("5.00"), null, null),
+            new CartItem(null, userId, 2L, 1, PRICE, null, null)));
+
+        cartStore.removeItem(userId, 1L);
+
+        assertSummaryMatchesLines(userId);
+        assertThat(cartSummaryRepository.findById(userId))
+            .hasValueSatisfying(summary -> assertThat(summary.getLineCount()).isEqualTo(1));
+    }
+
+    private void assertSummaryMatchesLines(String userId) {
+        CartSummary expected = JpaCartStore.summarize(userId, cartItemRepository.findByUserId(userId));
+        assertThat(cartSummaryRepository.findById(userId)).contains(expected);
+        assertThat(cartStore.getSummary(userId)).isEqualTo(expected);
+    }
+
+    private static CartChange add(Long productId, int quantity) {
+        return new CartChange(CartOperationType.ADD, productId, quantity, PRICE, 10);
+    }
+
+    // Tests commit, so every test works on its own cart
+    private static String newUser() {
+        return "user-" + UUID.randomUUID();
+    }
+}
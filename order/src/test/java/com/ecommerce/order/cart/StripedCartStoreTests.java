@@ -0,0 +1,157 @@
+package com.ecommerce.order.cart;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.repository.CartItemRepository;
+import com.ecommerce.order.repository.CartSummaryRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Behaviour of the in-memory cart store: the write-behind flush to cart_item and the
+ * restore of a checkout whose transaction rolls back. Runs without a test
+ * transaction, so flushes and checkouts commit like they do in the service.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StripedCartStoreTests {
+    private static final BigDecimal PRICE = new BigDecimal("2.50");
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CartSummaryRepository cartSummaryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StripedCartStore cartStore;
+    private String userId;
+
+    @BeforeEach
+    void createStore() {
+        cartStore = newStore();
+        // Tests commit, so every test works on its own cart
+        userId = "user-" + UUID.randomUUID();
+    }
+
+    @Test
+    void changesReachTheTableOnlyWhenFlushed() {
+        cartStore.addItem(userId, 1L, 2, PRICE, 10);
+        cartStore.addItem(userId, 2L, 1, PRICE, 10);
+        assertThat(cartItemRepository.findByUserId(userId)).isEmpty();
+
+        cartStore.flush();
+        assertThat(rows()).containsExactlyInAnyOrder(tuple(1L, 2), tuple(2L, 1));
+
+        cartStore.addItem(userId, 1L, 1, PRICE, 10);
+        cartStore.removeItem(userId, 2L);
+        cartStore.flush();
+        assertThat(rows()).containsExactly(tuple(1L, 3));
+
+        // A new instance starts from what was flushed
+        assertThat(newStore().getCart(userId))
+            .extracting(CartItem::getProductId, CartItem::getQuantity)
+            .containsExactly(tuple(1L, 3));
+    }
+
+    @Test
+    void lineRemovedAndAddedBackBeforeAFlushIsWrittenOnce() {
+        cartStore.addItem(userId, 1L, 2, PRICE, 10);
+        cartStore.flush();
+
+        cartStore.removeItem(userId, 1L);
+        cartStore.addItem(userId, 1L, 4, PRICE, 10);
+        cartStore.flush();
+
+        assertThat(rows()).containsExactly(tuple(1L, 4));
+    }
+
+    @Test
+    void committedCheckoutEmptiesTheCart() {
+        cartStore.addItem(userId, 1L, 2, PRICE, 10);
+        cartStore.flush();
+
+        List<CartItem> checkedOut = new TransactionTemplate(transactionManager)
+            .execute(status -> cartStore.checkout(userId));
+
+        assertThat(checkedOut).extracting(CartItem::getProductId).containsExactly(1L);
+        assertThat(cartStore.getCart(userId)).isEmpty();
+        assertThat(cartItemRepository.findByUserId(userId)).isEmpty();
+    }
+
+    @Test
+    void rolledBackCheckoutRestoresTheCartAndMergesLaterAdds() {
+        cartStore.addItem(userId, 1L, 2, PRICE, 10);
+        cartStore.addItem(userId, 2L, 1, PRICE, 10);
+        cartStore.flush();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(cartStore.checkout(userId)).hasSize(2);
+            // Added while the order was being placed
+            cartStore.addItem(userId, 1L, 1, PRICE, 10);
+            status.setRollbackOnly();
+        });
+
+        assertThat(cartStore.getCart(userId))
+            .extracting(CartItem::getProductId, CartItem::getQuantity)
+            .containsExactlyInAnyOrder(tuple(1L, 3), tuple(2L, 1));
+        // The rolled-back delete left the rows in place; the flush updates them in place
+        cartStore.flush();
+        assertThat(rows()).containsExactlyInAnyOrder(tuple(1L, 3), tuple(2L, 1));
+    }
+
+    @Test
+    void flushWritesTheSummaryOfTheFlushedLines() {
+        cartStore.addItem(userId, 1L, 2, PRICE, 10);
+        cartStore.addItem(userId, 2L, 1, PRICE, 10);
+        cartStore.flush();
+        assertFlushedSummaryMatchesRows();
+
+        cartStore.addItem(userId, 1L, 1, new BigDecimal("3.00"), 10);
+        cartStore.removeItem(userId, 2L);
+        cartStore.flush();
+        assertFlushedSummaryMatchesRows();
+
+        cartStore.clear(userId);
+        cartStore.flush();
+        assertFlushedSummaryMatchesRows();
+        assertThat(newStore().getSummary(userId).getLineCount()).isZero();
+    }
+
+    private void assertFlushedSummaryMatchesRows() {
+        assertThat(cartSummaryRepository.findById(userId))
+            .contains(JpaCartStore.summarize(userId, cartItemRepository.findByUserId(userId)));
+        assertThat(cartStore.getSummary(userId))
+            .isEqualTo(JpaCartStore.summarize(userId, cartItemRepository.findByUserId(userId)));
+    }
+
+    private List<Tuple> rows() {
+        return cartItemRepository.findByUserId(userId).stream()
+            .map(item -> tuple(item.getProductId(), item.getQuantity()))
+            .toList();
+    }
+
+    private StripedCartStore newStore() {
+        return new StripedCartStore(cartItemRepository, cartSummaryRepository, transactionManager,
+            new SimpleMeterRegistry(), 16, Duration.ofMinutes(10));
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.order.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+
+import com.ecommerce.observability.QueryPlans;
+import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.model.CartSummary;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.model.PendingReservation;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Query plan check: runs the repository queries against the schema built by the
+ * Flyway migrations, EXPLAINs every statement Hibernate sent and fails when a hot
+ * query reads its table with a full scan instead of an index. All plans are logged.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Import(QueryPlans.Inspection.class)
+class QueryPlanTests {
+    private static final int USERS = 50;
+    private static final int LINES_PER_USER = 20;
+    private static final int ORDERS_PER_USER = 5;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CartSummaryRepository cartSummaryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PendingReservationRepository pendingReservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QueryPlans queryPlans;
+
+    private final List<Long> orderIds = new ArrayList<>();
+    private final List<Long> cartItemIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int user = 0; user < USERS; user++) {
+            String userId = "user-" + user;
+            List<CartItem> cart = new ArrayList<>();
+            for (long productId = 1; productId <= LINES_PER_USER; productId++) {
+                cart.add(new CartItem(null, userId, productId, 1, BigDecimal.TEN, null, null));
+            }
+            cartItemRepository.saveAll(cart).forEach(item -> cartItemIds.add(item.getId()));
+            cartSummaryRepository.save(new CartSummary(userId, LINES_PER_USER, LINES_PER_USER, LINES_PER_USER * 1_000L));
+            outboxEventRepository.insertUserSequenceIfAbsent(userId);
+
+            for (int i = 0; i < ORDERS_PER_USER; i++) {
+                Order order = new Order();
+                order.setUserId(userId);
+                order.setOrderStatus(OrderStatus.CONFIRMED);
+                order.setTotalAmount(BigDecimal.TEN);
+                OrderItem item = new OrderItem();
+                item.setProductId(1L);
+                item.setQuantity(1);
+                item.setPrice(BigDecimal.TEN);
+                item.setOrder(order);
+                order.getItems().add(item);
+                orderIds.add(orderRepository.save(order).getId());
+                outboxEventRepository.save(new OutboxEvent(null, order.getId(), userId, i + 1, "order-exchange", "order.created", "{}", null));
+                pendingReservationRepository.save(new PendingReservation(UUID.randomUUID().toString(), LocalDateTime.now()));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void hotQueriesUseAnIndex() {
+        String userId = "user-7";
+        queryPlans.hot("cart line", () -> cartItemRepository.findByUserIdAndProductId(userId, 3L));
+        queryPlans.hot("cart line for update", () -> cartItemRepository.findByUserIdAndProductIdForUpdate(userId, 3L));
+        queryPlans.hot("cart", () -> cartItemRepository.findByUserId(userId));
+        queryPlans.hot("cart for update", () -> cartItemRepository.findByUserIdForUpdate(userId));
+        queryPlans.hot("cart line delete", () -> cartItemRepository.deleteByUserIdAndProductId(userId, 4L));
+        queryPlans.hot("cart lines batch delete", () -> cartItemRepository.deleteAllByIdInBatch(cartItemIds.subList(0, 10)));
+        queryPlans.hot("cart delete", () -> cartItemRepository.deleteByUserId("user-8"));
+        queryPlans.hot("cart summary", () -> cartSummaryRepository.findById(userId));
+        queryPlans.hot("cart summary delta", () -> cartSummaryRepository.applyDelta(userId, 1, 2, 300L));
+        queryPlans.hot("cart summary delete", () -> cartSummaryRepository.deleteByUserId("user-8"));
+        queryPlans.hot("order history", () -> orderRepository.findOrderHistory(userId, Limit.of(20)));
+        queryPlans.hot("order history next page", () ->
+            orderRepository.findOrderHistoryBefore(userId, LocalDateTime.now(), Long.MAX_VALUE, Limit.of(20)));
+        queryPlans.hot("order items", () -> orderRepository.findItemRowsByOrderIds(orderIds.subList(0, 20)));
+        queryPlans.hot("order", () -> orderRepository.findById(orderIds.get(0)));
+
+        queryPlans.hot("outbox user sequence", () -> outboxEventRepository.incrementUserSequence(userId));
+        queryPlans.hot("outbox user sequence read", () -> outboxEventRepository.findUserSequence(userId));
+        queryPlans.hot("pending reservation claim", () -> pendingReservationRepository.claim("reservation-1"));
+        queryPlans.hot("pending reservation release", () -> pendingReservationRepository.markReleasing("reservation-1"));
+        queryPlans.hot("abandoned reservations", () -> pendingReservationRepository.findIdsByCreatedAtBefore(
+            LocalDateTime.now(), Limit.of(100)));
+
+        // Runs once per cart, on its first change since summaries were added
+        queryPlans.logged("cart summary insert", () -> cartSummaryRepository.insertIfAbsent("user-new", 1, 1, 100L));
+
+        queryPlans.assertNoFullScans();
+    }
+
+    // The table only holds unpublished events: the relay reads all of them, each user's
+    // in sequence order. An index must return them in that order, so no poll sorts the table
+    @Test
+    void outboxBatchIsReadInIndexOrder() {
+        List<String> plans = queryPlans.plans("outbox batch",
+            () -> outboxEventRepository.findNextBatchForUpdate(PageRequest.of(0, 100)));
+
+        assertThat(plans).singleElement().satisfies(plan -> {
+            assertThat(QueryPlans.isFullScan(plan)).isFalse();
+            assertThat(plan).containsIgnoringCase("index sorted");
+        });
+    }
+}
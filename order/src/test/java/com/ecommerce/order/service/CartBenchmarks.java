@@ -0,0 +1,67 @@
+package com.ecommerce.order.service;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ecommerce.order.dto.CartItemRequest;
+
+/**
+ * CartService.addToCart on the merge path (the product is already in the cart)
+ * for carts of 1, 10 and 100 lines, against both cart stores.
+ *
+ * Run: mvn -Pjmh test-compile exec:exec -Djmh.args="CartBenchmarks"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartBenchmarks {
+    private static final String USER_ID = "bench-user";
+
+    @Param({"jpa", "striped"})
+    public String store;
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private CartService cartService;
+    private CartItemRequest merge;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = OrderBenchmarkContext.start(Map.of("cart.store", store));
+        cartService = context.getBean(CartService.class);
+        for (long productId = 1; productId <= lines; productId++) {
+            cartService.addToCart(USER_ID, new CartItemRequest(productId, 1));
+        }
+        merge = new CartItemRequest((long) lines, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean addToCart() {
+        return cartService.addToCart(USER_ID, merge);
+    }
+}
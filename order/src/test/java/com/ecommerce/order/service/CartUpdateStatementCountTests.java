@@ -0,0 +1,117 @@
+package com.ecommerce.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import com.ecommerce.order.cart.JpaCartStore;
+import com.ecommerce.order.client.UserServiceClient;
+import com.ecommerce.order.dto.CartOperation;
+import com.ecommerce.order.dto.CartOperationType;
+import com.ecommerce.order.dto.CartSummaryResponse;
+import com.ecommerce.order.dto.ProductResponse;
+import com.ecommerce.order.dto.UserResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Batch cart update benchmark: counts the JDBC statements prepared by
+ * CartService.updateCart for growing numbers of operations. The cart is read once
+ * and the new lines are written as JDBC batches, so the count must stay flat
+ * instead of growing with a SELECT and an INSERT per operation.
+ */
+@DataJpaTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.order_updates=true"
+})
+@Import({CartService.class, JpaCartStore.class})
+class CartUpdateStatementCountTests {
+    private static final Logger logger = LoggerFactory.getLogger(CartUpdateStatementCountTests.class);
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @MockBean
+    private ProductLookupService productLookupService;
+
+    @BeforeEach
+    void stubServices() {
+        when(userServiceClient.getUserDetails(anyString())).thenReturn(new UserResponse());
+        when(productLookupService.getProducts(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                .map(id -> new ProductResponse(id, "product-" + id, null, BigDecimal.valueOf(19.99), 1_000, null, null, true))
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+        });
+    }
+
+    @Test
+    void statementCountStaysFlatAsOperationsGrow() {
+        // Warm up the pooled sequences so the first measured run is not penalised
+        updateStatementCount("warmup", 1);
+
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int operations : new int[] {1, 10, 50, 100}) {
+            counts.put(operations, updateStatementCount("user-" + operations, operations));
+        }
+        logger.info("Cart update statements by operation count: {}", counts);
+
+        // Allow for extra sequence fetches / JDBC batches, but nothing per operation
+        assertThat(counts.get(100)).isLessThanOrEqualTo(counts.get(1) + 4);
+    }
+
+    private long updateStatementCount(String userId, int lines) {
+        List<CartOperation> operations = new ArrayList<>();
+        for (long productId = 1; productId <= lines; productId++) {
+            operations.add(new CartOperation(CartOperationType.ADD, productId, 2));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(cartService.updateCart(userId, operations)).hasValueSatisfying(cart -> assertThat(cart).hasSize(lines));
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        CartSummaryResponse summary = cartService.getCartSummary(userId);
+        assertThat(summary.getLineCount()).isEqualTo(lines);
+        assertThat(summary.getItemCount()).isEqualTo(lines * 2);
+        assertThat(summary.getSubtotal()).isEqualByComparingTo(new BigDecimal("39.98").multiply(BigDecimal.valueOf(lines)));
+        return statements;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import com.ecommerce.order.cart.JpaCartStore;
+import com.ecommerce.order.client.UserServiceClient;
+import com.ecommerce.order.dto.ProductResponse;
+import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.repository.CartItemRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checkout benchmark: counts the JDBC statements prepared by OrderService.createOrder
+ * for growing basket sizes. With sequence ids and JDBC batching the count must stay
+ * flat instead of growing with one INSERT per order line.
+ */
+@DataJpaTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Import({OrderService.class, CartService.class, JpaCartStore.class})
+class CheckoutStatementCountTests {
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutStatementCountTests.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private OrderEventPublisher orderEventPublisher;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @MockBean
+    private ProductLookupService productLookupService;
+
+    @MockBean
+    private StockReservationService stockReservationService;
+
+    @BeforeEach
+    void stubProductService() {
+        when(productLookupService.getProducts(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                .map(id -> new ProductResponse(id, "product-" + id, null, BigDecimal.valueOf(100.00), 1_000, null, null, true))
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+        });
+        when(stockReservationService.reserve(anyList()))
+            .thenAnswer(invocation -> Optional.of(UUID.randomUUID().toString()));
+        when(stockReservationService.claim(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void statementCountStaysFlatAsBasketGrows() {
+        // Warm up the pooled sequences so the first measured run is not penalised
+        checkoutStatementCount("warmup", 1);
+
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int lines : new int[] {1, 10, 30, 80}) {
+            counts.put(lines, checkoutStatementCount("user-" + lines, lines));
+        }
+        logger.info("Checkout statements by basket size: {}", counts);
+
+        // Allow for an extra sequence fetch / JDBC batch, but nothing per line
+        assertThat(counts.get(80)).isLessThanOrEqualTo(counts.get(1) + 3);
+    }
+
+    private long checkoutStatementCount(String userId, int lines) {
+        List<CartItem> cart = new ArrayList<>();
+        for (long productId = 1; productId <= lines; productId++) {
+            CartItem item = new CartItem();
+            item.setUserId(userId);
+            item.setProductId(productId);
+            item.setQuantity(1);
+            item.setPrice(BigDecimal.valueOf(100.00));
+            cart.add(item);
+        }
+        cartItemRepository.saveAll(cart);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(orderService.createOrder(userId)).isPresent();
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(cartItemRepository.findByUserId(userId)).isEmpty();
+        return statements;
+    }
+}
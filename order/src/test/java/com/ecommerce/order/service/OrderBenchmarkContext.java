@@ -0,0 +1,112 @@
+package com.ecommerce.order.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import com.ecommerce.order.OrderApplication;
+import com.ecommerce.order.client.ProductServiceClient;
+import com.ecommerce.order.client.StockReservationClient;
+import com.ecommerce.order.client.UserServiceClient;
+import com.ecommerce.order.dto.ProductResponse;
+import com.ecommerce.order.dto.ReservationItem;
+import com.ecommerce.order.dto.UserResponse;
+
+/**
+ * Boots the order application for the benchmarks: in-memory H2 with the
+ * production Hibernate batching settings, no config server, Eureka, outbox relay
+ * or tracing, and in-process stand-ins for user-service and product-service.
+ */
+final class OrderBenchmarkContext {
+    static final BigDecimal UNIT_PRICE = new BigDecimal("19.99");
+
+    private OrderBenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> overrides) {
+        return start(overrides, WebApplicationType.NONE);
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> overrides, WebApplicationType webApplicationType) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.cloud.config.enabled", false);
+        properties.put("eureka.client.enabled", false);
+        properties.put("spring.cloud.discovery.enabled", false);
+        properties.put("management.tracing.enabled", false);
+        properties.put("order.outbox.relay.enabled", false);
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        // Schema from the Flyway migrations, the same one production runs on
+        properties.put("spring.jpa.hibernate.ddl-auto", "none");
+        properties.put("spring.jpa.properties.hibernate.jdbc.batch_size", 50);
+        properties.put("spring.jpa.properties.hibernate.order_inserts", true);
+        properties.put("spring.jpa.properties.hibernate.order_updates", true);
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+
+        return new SpringApplicationBuilder(OrderApplication.class, Stubs.class)
+            .web(webApplicationType)
+            .properties(properties)
+            .run();
+    }
+
+    // Registered as a source (not scanned), so it never leaks into the other tests
+    static class Stubs {
+
+        // benchmark.user-service.latency-ms simulates a slow user-service call per lookup
+        @Bean
+        @Primary
+        UserServiceClient benchmarkUserServiceClient(
+                @Value("${benchmark.user-service.latency-ms:0}") long latencyMillis) {
+            return id -> {
+                if (latencyMillis > 0) {
+                    try {
+                        Thread.sleep(latencyMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                UserResponse user = new UserResponse();
+                user.setId(id);
+                return user;
+            };
+        }
+
+        @Bean
+        @Primary
+        ProductServiceClient benchmarkProductServiceClient() {
+            return ids -> ids.stream()
+                .map(id -> new ProductResponse(id, "product-" + id, null, UNIT_PRICE, Integer.MAX_VALUE, null, null, true))
+                .toList();
+        }
+
+        @Bean
+        @Primary
+        StockReservationClient benchmarkStockReservationClient() {
+            return new StockReservationClient() {
+                @Override
+                public boolean reserve(String reservationId, List<ReservationItem> items) {
+                    return true;
+                }
+
+                @Override
+                public boolean commit(String reservationId) {
+                    return true;
+                }
+
+                @Override
+                public void release(String reservationId) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.ecommerce.order.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ecommerce.order.dto.OrderCreatedEvent;
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.dto.ProductResponse;
+import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.repository.CartItemRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Order hot paths for 1, 10 and 100-line carts:
+ * - createOrder: checkout, pricing, batched insert and outbox write against H2
+ * - buildOrder: pricing and total aggregation alone
+ * - mapToOrderResponse, OrderEventPublisher.toEvent and event JSON serialization
+ *
+ * Only createOrder uses the Checkout state, whose per-invocation cart refill would
+ * otherwise add JMH's invocation-level timing overhead to the CPU-only benchmarks.
+ *
+ * Run: mvn -Pjmh test-compile exec:exec -Djmh.args="OrderBenchmarks"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBenchmarks {
+    private static final String USER_ID = "bench-user";
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CartItemRepository cartItemRepository;
+    private ObjectMapper objectMapper;
+
+    private List<CartItem> cart;
+    private Map<Long, ProductResponse> products;
+    private Order savedOrder;
+    private OrderCreatedEvent event;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = OrderBenchmarkContext.start(Map.of("cart.store", "jpa"));
+        orderService = context.getBean(OrderService.class);
+        cartItemRepository = context.getBean(CartItemRepository.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        cart = new ArrayList<>();
+        for (long productId = 1; productId <= lines; productId++) {
+            cart.add(cartItem(productId));
+        }
+        products = cart.stream()
+            .map(item -> new ProductResponse(item.getProductId(), "product-" + item.getProductId(), null,
+                OrderBenchmarkContext.UNIT_PRICE, Integer.MAX_VALUE, null, null, true))
+            .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+
+        // A persisted-looking order for the mapping and event benchmarks
+        savedOrder = orderService.buildOrder(USER_ID, cart, products);
+        savedOrder.setId(1L);
+        savedOrder.setCreatedAt(LocalDateTime.now());
+        long itemId = 1;
+        for (OrderItem item : savedOrder.getItems()) {
+            item.setId(itemId++);
+        }
+        event = OrderEventPublisher.toEvent(savedOrder);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponse createOrder(Checkout checkout) {
+        return orderService.createOrder(USER_ID).orElseThrow();
+    }
+
+    @Benchmark
+    public Order buildOrder() {
+        return orderService.buildOrder(USER_ID, cart, products);
+    }
+
+    @Benchmark
+    public OrderResponse mapToOrderResponse() {
+        return orderService.mapToOrderResponse(savedOrder);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent buildEvent() {
+        return OrderEventPublisher.toEvent(savedOrder);
+    }
+
+    @Benchmark
+    public String serializeEvent() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    // A full cart before every createOrder call, since checkout empties it
+    @State(Scope.Benchmark)
+    public static class Checkout {
+        @Setup(Level.Invocation)
+        public void fillCart(OrderBenchmarks benchmarks) {
+            List<CartItem> items = new ArrayList<>(benchmarks.lines);
+            for (long productId = 1; productId <= benchmarks.lines; productId++) {
+                items.add(cartItem(productId));
+            }
+            benchmarks.cartItemRepository.saveAll(items);
+        }
+    }
+
+    private static CartItem cartItem(long productId) {
+        CartItem item = new CartItem();
+        item.setUserId(USER_ID);
+        item.setProductId(productId);
+        item.setQuantity(2);
+        item.setPrice(OrderBenchmarkContext.UNIT_PRICE.multiply(BigDecimal.valueOf(2)));
+        return item;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import com.ecommerce.order.dto.OrderPage;
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.OrderRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Order history benchmark: counts the JDBC statements prepared by
+ * OrderService.getOrderHistory for growing page sizes and item counts. The order
+ * rows and their items are read as two projection queries, so the count must stay
+ * at two per page instead of growing with one items query per order.
+ */
+@DataJpaTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Import(OrderService.class)
+class OrderHistoryQueryCountTests {
+    private static final Logger logger = LoggerFactory.getLogger(OrderHistoryQueryCountTests.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private CartService cartService;
+
+    @MockBean
+    private OrderEventPublisher orderEventPublisher;
+
+    @MockBean
+    private ProductLookupService productLookupService;
+
+    @MockBean
+    private StockReservationService stockReservationService;
+
+    @Test
+    void queryCountStaysFlatAsPageGrows() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int pageSize : new int[] {1, 10, 50}) {
+            for (int itemsPerOrder : new int[] {1, 20}) {
+                String userId = "user-" + pageSize + "-" + itemsPerOrder;
+                saveOrders(userId, pageSize * 2, itemsPerOrder);
+                counts.put(pageSize + "x" + itemsPerOrder, walkHistory(userId, pageSize, pageSize * 2, itemsPerOrder));
+            }
+        }
+        logger.info("Statements per history page by page size x items per order: {}", counts);
+
+        assertThat(counts.values()).allMatch(statements -> statements == 2);
+    }
+
+    // Reads every page and returns the most statements any single page needed
+    private long walkHistory(String userId, int pageSize, int orders, int itemsPerOrder) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<OrderResponse> seen = new ArrayList<>();
+        long maxStatements = 0;
+        String cursor = null;
+        do {
+            statistics.clear();
+            OrderPage page = orderService.getOrderHistory(userId, cursor, pageSize).orElseThrow();
+            maxStatements = Math.max(maxStatements, statistics.getPrepareStatementCount());
+            entityManager.clear();
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(orders);
+        assertThat(seen).allMatch(order -> order.getItems().size() == itemsPerOrder);
+        // Newest first, ties broken by id
+        for (int i = 1; i < seen.size(); i++) {
+            OrderResponse previous = seen.get(i - 1);
+            OrderResponse current = seen.get(i);
+            assertThat(previous.getCreatedAt().isAfter(current.getCreatedAt())
+                || previous.getCreatedAt().isEqual(current.getCreatedAt()) && previous.getId() > current.getId())
+                .isTrue();
+        }
+        return maxStatements;
+    }
+
+    private void saveOrders(String userId, int orders, int itemsPerOrder) {
+        for (int i = 0; i < orders; i++) {
+            Order order = new Order();
+            order.setUserId(userId);
+            order.setOrderStatus(OrderStatus.CONFIRMED);
+            order.setTotalAmount(BigDecimal.valueOf(10L * itemsPerOrder));
+            for (long productId = 1; productId <= itemsPerOrder; productId++) {
+                OrderItem item = new OrderItem();
+                item.setProductId(productId);
+                item.setQuantity(1);
+                item.setPrice(BigDecimal.TEN);
+                item.setOrder(order);
+                order.getItems().add(item);
+            }
+            orderRepository.save(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,167 @@
+package com.ecommerce.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Per-user ordering of the outbox: events are numbered in commit order, published in
+ * that order whatever their ids, and an unconfirmed event holds back the user's later
+ * events. Runs without a test transaction, so every write commits like in the service.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Import({OutboxRelay.class, OrderEventPublisher.class, OutboxRelayTests.Support.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTests {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    private final RabbitOperations operations = mock(RabbitOperations.class);
+    // Message ids in send order, with "confirm" where the relay waited for confirms
+    private final List<String> published = new ArrayList<>();
+
+    @BeforeEach
+    void broker() {
+        outboxEventRepository.deleteAll();
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+            invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+        doAnswer(invocation -> published.add(invocation.<Message>getArgument(2).getMessageProperties().getMessageId()))
+            .when(operations).send(anyString(), anyString(), any(Message.class));
+        confirms(true);
+    }
+
+    @Test
+    void userEventsAreNumberedInCommitOrder() {
+        orderEventPublisher.prepareUserSequence("user-1");
+        place(1L, "user-1");
+        place(2L, "user-1");
+        place(3L, "user-2");
+
+        assertThat(outboxEventRepository.findAll())
+            .extracting(OutboxEvent::getAggregateId, OutboxEvent::getUserSeq)
+            .containsExactlyInAnyOrder(tuple(1L, 1L), tuple(2L, 2L), tuple(3L, 1L));
+    }
+
+    // Ids come from a pooled sequence, so with two order instances the event committed
+    // first can have the higher id; the relay still sends it first
+    @Test
+    void eventsOfOneUserArriveInCommitOrderWhateverTheirIds() {
+        String second = event("user-1", 2);
+        String other = event("user-2", 1);
+        String first = event("user-1", 1);
+
+        outboxRelay.relay();
+
+        assertThat(published).containsExactly(first, other, "confirm", second, "confirm");
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void unconfirmedEventHoldsBackTheUsersLaterEvents() {
+        String first = event("user-1", 1);
+        String second = event("user-1", 2);
+        String third = event("user-1", 3);
+        String other = event("user-2", 1);
+        confirms(true, false);
+
+        outboxRelay.relay();
+
+        // The second round was sent but not confirmed; the third event was never sent
+        assertThat(published).containsExactly(first, other, "confirm", second, "confirm");
+        assertThat(outboxEventRepository.findAll())
+            .extracting(event -> String.valueOf(event.getId()))
+            .containsExactlyInAnyOrder(second, third);
+
+        published.clear();
+        confirms(true);
+        outboxRelay.relay();
+
+        assertThat(published).containsExactly(second, "confirm", third, "confirm");
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    // One result per wait, the last one repeating
+    private void confirms(Boolean... results) {
+        List<Boolean> remaining = new ArrayList<>(List.of(results));
+        doAnswer(invocation -> {
+            published.add("confirm");
+            return remaining.size() > 1 ? remaining.remove(0) : remaining.get(0);
+        }).when(operations).waitForConfirms(anyLong());
+    }
+
+    private void place(Long orderId, String userId) {
+        Order order = new Order();
+        order.setId(orderId);
+        order.setUserId(userId);
+        order.setTotalAmount(BigDecimal.TEN);
+        order.setOrderStatus(OrderStatus.CONFIRMED);
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> orderEventPublisher.publishOrderCreatedEvent(order));
+    }
+
+    // Saved in call order, so later calls get higher ids
+    private String event(String userId, long userSeq) {
+        OutboxEvent event = new OutboxEvent(null, 1L, userId, userSeq, "order-exchange", "order.created", "{}", null);
+        return String.valueOf(outboxEventRepository.save(event).getId());
+    }
+
+    @TestConfiguration
+    static class Support {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+}
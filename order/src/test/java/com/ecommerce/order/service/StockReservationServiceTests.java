@@ -0,0 +1,142 @@
+package com.ecommerce.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.order.client.StockReservationClient;
+import com.ecommerce.order.dto.ReservationItem;
+import com.ecommerce.order.model.CartItem;
+import com.ecommerce.order.repository.PendingReservationRepository;
+
+/**
+ * Order-side reservation lifecycle against H2: a reservation is recorded before the
+ * reserve call, a placed order claims it, and claim and release exclude each other.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Import(StockReservationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationServiceTests {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private PendingReservationRepository pendingReservationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private StockReservationClient stockReservationClient;
+
+    private final List<CartItem> cart = List.of(
+        new CartItem(null, "user-1", 2L, 1, BigDecimal.TEN, null, null),
+        new CartItem(null, "user-1", 1L, 3, BigDecimal.TEN, null, null),
+        new CartItem(null, "user-1", 2L, 2, BigDecimal.TEN, null, null));
+
+    @BeforeEach
+    void acceptReservations() {
+        when(stockReservationClient.reserve(anyString(), anyList())).thenReturn(true);
+        when(stockReservationClient.commit(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void reserveCommitsOneItemPerProductAndRecordsTheId() {
+        String reservationId = stockReservationService.reserve(cart).orElseThrow();
+
+        verify(stockReservationClient).reserve(reservationId,
+            List.of(new ReservationItem(1L, 3), new ReservationItem(2L, 3)));
+        verify(stockReservationClient).commit(reservationId);
+        assertThat(pendingReservationRepository.existsById(reservationId)).isTrue();
+    }
+
+    @Test
+    void claimedReservationIsNeverReleased() {
+        String reservationId = stockReservationService.reserve(cart).orElseThrow();
+
+        assertThat(claim(reservationId)).isTrue();
+        stockReservationService.release(reservationId);
+
+        verify(stockReservationClient, never()).release(anyString());
+        assertThat(pendingReservationRepository.existsById(reservationId)).isFalse();
+    }
+
+    @Test
+    void releasedReservationCannotBeClaimed() {
+        String reservationId = stockReservationService.reserve(cart).orElseThrow();
+
+        stockReservationService.release(reservationId);
+
+        verify(stockReservationClient).release(reservationId);
+        assertThat(claim(reservationId)).isFalse();
+        assertThat(pendingReservationRepository.existsById(reservationId)).isFalse();
+    }
+
+    @Test
+    void failedReleaseIsKeptForTheReleaseJob() {
+        String reservationId = stockReservationService.reserve(cart).orElseThrow();
+        doThrow(new RuntimeException("product-service down")).when(stockReservationClient).release(reservationId);
+
+        stockReservationService.release(reservationId);
+
+        assertThat(pendingReservationRepository.findById(reservationId))
+            .hasValueSatisfying(pending -> assertThat(pending.isReleasing()).isTrue());
+        assertThat(claim(reservationId)).isFalse();
+    }
+
+    @Test
+    void rejectedCommitReleasesTheReservation() {
+        when(stockReservationClient.commit(anyString())).thenReturn(false);
+
+        assertThat(stockReservationService.reserve(cart)).isEmpty();
+
+        assertReleased(releasedId());
+    }
+
+    @Test
+    void rejectedReserveIsNotCommitted() {
+        when(stockReservationClient.reserve(anyString(), anyList())).thenReturn(false);
+
+        assertThat(stockReservationService.reserve(cart)).isEmpty();
+
+        verify(stockReservationClient, never()).commit(anyString());
+        assertReleased(releasedId());
+    }
+
+    private String releasedId() {
+        ArgumentCaptor<String> reservationId = ArgumentCaptor.forClass(String.class);
+        verify(stockReservationClient).release(reservationId.capture());
+        return reservationId.getValue();
+    }
+
+    private void assertReleased(String reservationId) {
+        assertThat(pendingReservationRepository.existsById(reservationId)).isFalse();
+    }
+
+    private boolean claim(String reservationId) {
+        return Optional.ofNullable(new TransactionTemplate(transactionManager)
+                .execute(status -> stockReservationService.claim(reservationId)))
+            .orElse(false);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares the order service on Tomcat's platform-thread pool (200 threads) against
+ * virtual threads (spring.threads.virtual.enabled), end to end over HTTP.
+ *
+ * Each request is a real POST /api/cart: Tomcat, Spring MVC, CartService, the
+ * user-service lookup, the product lookup and the JPA cart store on H2. The
+ * user-service stand-in blocks for REMOTE_LATENCY_MILLIS, like a slow remote call,
+ * and every request uses a new user id. The same burst runs against both modes and
+ * throughput, p50 and p99 are logged, so pinning regressions show up as the
+ * virtual run collapsing to platform numbers.
+ *
+ * Opt-in: mvn test -Dbenchmark=true -Dtest=VirtualThreadBenchmarkTests
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadBenchmarkTests.class);
+    private static final int PLATFORM_POOL_SIZE = 200;
+    private static final long REMOTE_LATENCY_MILLIS = 50;
+    private static final int WARMUP_REQUESTS = 500;
+
+    @ParameterizedTest(name = "concurrentRequests={0}")
+    @ValueSource(ints = {200, 1_000, 5_000})
+    void virtualThreadsKeepLatencyFlatUnderBlockingCalls(int requests) throws Exception {
+        Result platform = run("platform", false, requests);
+        Result virtual = run("virtual", true, requests);
+
+        // Virtual threads should never be slower than the saturated pool
+        assertThat(virtual.p99Millis()).isLessThanOrEqualTo(platform.p99Millis() + REMOTE_LATENCY_MILLIS);
+    }
+
+    private Result run(String mode, boolean virtualThreads, int requests) throws Exception {
+        try (ConfigurableApplicationContext context = OrderBenchmarkContext.start(Map.of(
+                "cart.store", "jpa",
+                "server.port", 0,
+                "server.tomcat.threads.max", PLATFORM_POOL_SIZE,
+                "spring.threads.virtual.enabled", virtualThreads,
+                "benchmark.user-service.latency-ms", REMOTE_LATENCY_MILLIS), WebApplicationType.SERVLET);
+             HttpClient http = HttpClient.newBuilder()
+                 .version(HttpClient.Version.HTTP_1_1)
+                 .executor(Executors.newVirtualThreadPerTaskExecutor())
+                 .build()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI cart = URI.create("http://localhost:" + port + "/api/cart");
+
+            burst(http, cart, mode + "-warmup", WARMUP_REQUESTS);
+
+            long start = System.nanoTime();
+            long[] sorted = burst(http, cart, mode, requests);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Result result = new Result(
+                sorted[(int) (requests * 0.50)] / 1_000_000,
+                sorted[Math.min(requests - 1, (int) (requests * 0.99))] / 1_000_000);
+            logger.info("mode={} requests={} time={}s throughput={} req/s p50={}ms p99={}ms",
+                mode, requests, String.format("%.2f", seconds), String.format("%.0f", requests / seconds),
+                result.p50Millis(), result.p99Millis());
+            return result;
+        }
+    }
+
+    // Sends all requests at once and returns their latencies in nanoseconds, sorted
+    private static long[] burst(HttpClient http, URI cart, String userPrefix, int requests) throws Exception {
+        List<Future<Long>> latencies = new ArrayList<>(requests);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                HttpRequest request = HttpRequest.newBuilder(cart)
+                    .header("Content-Type", "application/json")
+                    .header("X-User-Id", userPrefix + "-user-" + i)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"productId\":" + (i % 100 + 1) + ",\"quantity\":1}"))
+                    .build();
+                latencies.add(clients.submit(() -> {
+                    long sent = System.nanoTime();
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    assertThat(response.statusCode()).isEqualTo(201);
+                    return System.nanoTime() - sent;
+                }));
+            }
+        }
+        long[] sorted = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            sorted[i] = latencies.get(i).get();
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private record Result(long p50Millis, long p99Millis) {
+    }
+}
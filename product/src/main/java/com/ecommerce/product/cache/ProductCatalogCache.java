@@ -0,0 +1,137 @@
+package com.ecommerce.product.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-process read-through cache for the product catalog.
+ *
+ * Holds two views:
+ * - products by id, bounded by an estimated byte size (W-TinyLFU eviction)
+ * - the precomputed "active listing" served by GET /api/products
+ *
+ * Writes in ProductService refresh the id entries they touch and drop the listing,
+ * which is rebuilt from the database on the next read. Hit/miss/eviction counters
+ * are published as the standard cache.* meters under /actuator/metrics.
+ */
+@Component
+public class ProductCatalogCache {
+    private static final String PRODUCTS_CACHE = "product.catalog";
+    private static final String LISTING_CACHE = "product.listing";
+
+    private final Cache<Long, ProductResponse> products;
+
+    // Listing snapshot plus the invalidation version it was built against
+    private final AtomicReference<Listing> activeListing = new AtomicReference<>();
+    private final AtomicLong listingVersion = new AtomicLong();
+    private final Counter listingHits;
+    private final Counter listingMisses;
+
+    public ProductCatalogCache(
+            MeterRegistry meterRegistry,
+            @Value("${catalog.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+            @Value("${catalog.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.products = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long id, ProductResponse product) -> estimateSize(product))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, PRODUCTS_CACHE);
+
+        this.listingHits = Counter.builder("cache.gets")
+                .tag("cache", LISTING_CACHE).tag("result", "hit")
+                .register(meterRegistry);
+        this.listingMisses = Counter.builder("cache.gets")
+                .tag("cache", LISTING_CACHE).tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    // Returns the cached product, loading it on a miss; missing products are not cached.
+    // The load is an atomic compute: a put or evict for the same id waits for it, so a
+    // stale database read can never overwrite a newer write
+    public Optional<ProductResponse> get(Long id, Function<Long, Optional<ProductResponse>> loader) {
+        return Optional.ofNullable(products.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public ProductResponse getIfPresent(Long id) {
+        return products.getIfPresent(id);
+    }
+
+    public void put(ProductResponse product) {
+        products.put(product.getId(), product);
+    }
+
+    // For bulk reads done outside get(): never replaces an entry a concurrent write put in
+    // while the read was running
+    public void putIfAbsent(ProductResponse product) {
+        products.asMap().putIfAbsent(product.getId(), product);
+    }
+
+    public void evict(Long id) {
+        products.invalidate(id);
+    }
+
+    // Returns the active listing, rebuilding it with the loader after an invalidation
+    public List<ProductResponse> getActiveListing(Supplier<List<ProductResponse>> loader) {
+        Listing cached = activeListing.get();
+        if (cached != null) {
+            listingHits.increment();
+            return cached.products();
+        }
+        listingMisses.increment();
+
+        long version = listingVersion.get();
+        Listing rebuilt = new Listing(version, List.copyOf(loader.get()));
+        rebuilt.products().forEach(this::putIfAbsent);
+
+        // A write that raced with the rebuild bumps the version; never keep a stale snapshot
+        if (activeListing.compareAndSet(null, rebuilt) && listingVersion.get() != version) {
+            activeListing.compareAndSet(rebuilt, null);
+        }
+        return rebuilt.products();
+    }
+
+    public void invalidateListing() {
+        listingVersion.incrementAndGet();
+        activeListing.set(null);
+    }
+
+    public void invalidateAll() {
+        products.invalidateAll();
+        invalidateListing();
+    }
+
+    // Rough heap footprint of a cached response: object headers plus UTF-16 string data
+    private static int estimateSize(ProductResponse product) {
+        return 96
+                + stringSize(product.getSku())
+                + stringSize(product.getName())
+                + stringSize(product.getDescription())
+                + stringSize(product.getCategory())
+                + stringSize(product.getImageUrl());
+    }
+
+    private static int stringSize(String value) {
+        return value == null ? 0 : 40 + 2 * value.length();
+    }
+
+    private record Listing(long version, List<ProductResponse> products) {
+    }
+}
@@ -2,28 +2,50 @@ package com.ecommerce.product.controller;
 
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.ecommerce.product.dto.ImportSummary;
+import com.ecommerce.product.dto.ProductPage;
 import com.ecommerce.product.dto.ProductRequest;
 import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.importer.ProductFeedReader;
+import com.ecommerce.product.importer.ProductImportService;
 import com.ecommerce.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.RequiredArgsConstructor;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 100;
+    
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ObjectMapper objectMapper;
     
     // Create product endpoint
     @PostMapping
@@ -32,6 +54,33 @@ public class ProductController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
     
+    // Bulk import endpoint: NDJSON or CSV feed, read line by line and written in chunks.
+    // Responds with one NDJSON progress line per committed chunk, then a summary line
+    @PostMapping(value = "/import", consumes = {ProductFeedReader.NDJSON, ProductFeedReader.CSV}, produces = NDJSON)
+    public void importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestParam(required = false) Integer chunkSize,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+        try (ProductFeedReader reader = ProductFeedReader.open(contentType, request.getInputStream(), objectMapper);
+             SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(response.getOutputStream())) {
+            ImportSummary summary = productImportService.importProducts(reader, chunkSize, report -> {
+                try {
+                    writer.write(report);
+                    writer.flush();
+                    response.flushBuffer();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.write(summary);
+        }
+    }
+    
     // Update product endpoint
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> updateProduct(
@@ -49,6 +98,50 @@ public class ProductController {
         return ResponseEntity.ok(productService.getAllProducts());
     }
     
+    // Bulk lookup endpoint: /api/products?ids=1,2,3 (unknown ids are omitted)
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > ProductService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+    
+    // Keyset-paginated products endpoint: /api/products/page?cursor={lastId}&size={n}
+    @GetMapping("/page")
+    public ResponseEntity<ProductPage> getProductPage(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(productService.getProductPage(cursor, size));
+    }
+    
+    // Streaming products endpoint: one JSON object per line, written as rows are read
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(ProductResponse.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                productService.streamActiveProducts(product -> {
+                    try {
+                        writer.write(product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+    
+    // Get single product endpoint
+    @GetMapping("/{id}")
+    public ResponseEntity<ProductResponse> getProduct(@PathVariable Long id) {
+        return productService.getProduct(id)
+                            .map(ResponseEntity::ok)
+                            .orElse(ResponseEntity.notFound().build());
+    }
+    
     // Delete product endpoint
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
@@ -58,9 +151,22 @@ public class ProductController {
             : ResponseEntity.notFound().build();
     }
     
-    // Search products endpoint
+    // Search products endpoint: every match, or one page when page or size is given
     @GetMapping("/search")
-    public ResponseEntity<List<ProductResponse>> searchProducts(@RequestParam String keyword) {
-        return ResponseEntity.ok(productService.searchProducts(keyword));
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (page == null && size == null) {
+            return ResponseEntity.ok(productService.searchProducts(keyword));
+        }
+        return ResponseEntity.ok(productService.searchProducts(keyword,
+                page == null ? 0 : page, size == null ? DEFAULT_SEARCH_PAGE_SIZE : size));
+    }
+    
+    // A reservation changed the product's stock between read and write of an update
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleConcurrentUpdate() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.ecommerce.product.controller;
+
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.util.Optional;
+
+import com.ecommerce.product.dto.ReservationItem;
+import com.ecommerce.product.dto.StockReservationRequest;
+import com.ecommerce.product.dto.StockReservationResponse;
+import com.ecommerce.product.model.ReservationStatus;
+import com.ecommerce.product.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/products/reservations")
+@RequiredArgsConstructor
+public class StockReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    // Reserve endpoint: all items or none; 409 when any product is short, inactive or unknown.
+    // A repeated id answers with that reservation, 409 once it was released or expired
+    @PostMapping
+    public ResponseEntity<StockReservationResponse> reserve(@RequestBody StockReservationRequest request) {
+        if (!isValid(request)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return stockReservationService.reserve(request.getId(), request.getItems())
+                .map(response -> response.getStatus() == ReservationStatus.RESERVED
+                        || response.getStatus() == ReservationStatus.COMMITTED
+                        ? new ResponseEntity<>(response, HttpStatus.CREATED)
+                        : ResponseEntity.status(HttpStatus.CONFLICT).body(response))
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    // Commit endpoint: 409 with the current status when already released or expired
+    @PostMapping("/{id}/commit")
+    public ResponseEntity<StockReservationResponse> commit(@PathVariable String id) {
+        return toResponse(stockReservationService.commit(id), ReservationStatus.COMMITTED);
+    }
+
+    // Release endpoint: gives the stock back, also after a commit; 409 with the current status
+    // when already released or expired
+    @DeleteMapping("/{id}")
+    public ResponseEntity<StockReservationResponse> release(@PathVariable String id) {
+        return toResponse(stockReservationService.release(id), ReservationStatus.RELEASED);
+    }
+
+    private static ResponseEntity<StockReservationResponse> toResponse(
+            Optional<StockReservationResponse> result, ReservationStatus expected) {
+        return result
+                .map(response -> response.getStatus() == expected
+                        ? ResponseEntity.ok(response)
+                        : ResponseEntity.status(HttpStatus.CONFLICT).body(response))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static boolean isValid(StockReservationRequest request) {
+        if (request.getId() != null && (request.getId().isBlank() || request.getId().length() > 36)) {
+            return false;
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()
+                || request.getItems().size() > StockReservationService.MAX_ITEMS) {
+            return false;
+        }
+        for (ReservationItem item : request.getItems()) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// Progress line written after each chunk of a bulk import is committed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportChunkReport {
+    private int chunk;              // 1-based chunk number
+    private long firstLine;
+    private long lastLine;
+    private int written;            // Rows inserted or updated
+    private int failed;             // Rows skipped; see errors
+    private List<ImportError> errors;
+    private long elapsedMs;
+}
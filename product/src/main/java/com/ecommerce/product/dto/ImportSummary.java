@@ -0,0 +1,16 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Last line of a bulk import response
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportSummary {
+    private int chunks;
+    private long written;
+    private long failed;
+    private long elapsedMs;
+}
@@ -11,6 +11,7 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductRequest {
+    private String sku;             // Optional; re-importing a SKU updates the product
     private String name;
     private String description;
     private BigDecimal price;
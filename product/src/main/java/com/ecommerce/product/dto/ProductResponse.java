@@ -10,6 +10,7 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class ProductResponse {
     private Long id;
+    private String sku;
     private String name;
     private String description;
     private BigDecimal price;
@@ -0,0 +1,19 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.ecommerce.product.model.ReservationStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+    private String id;
+    private ReservationStatus status;
+    private List<ReservationItem> items;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,189 @@
+package com.ecommerce.product.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+
+import com.ecommerce.product.dto.ProductRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Reads a product feed one line at a time, so an upload is never held in memory.
+ *
+ * Formats:
+ * - NDJSON (application/x-ndjson): one ProductRequest object per line
+ * - CSV (text/csv): a header row naming the columns (sku, name, description, price,
+ *   quantity, category, imageUrl, in any order; others are ignored), then one product
+ *   per line. Fields may be double-quoted but cannot span lines.
+ *
+ * Blank lines are skipped. A line that does not parse comes back as a record with an
+ * error rather than ending the import.
+ */
+public abstract class ProductFeedReader implements Closeable {
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private final BufferedReader reader;
+    private long lineNumber;
+
+    protected ProductFeedReader(InputStream input, Charset charset) {
+        this.reader = new BufferedReader(new InputStreamReader(input, charset));
+    }
+
+    public static ProductFeedReader open(MediaType contentType, InputStream input, ObjectMapper objectMapper) {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        if (contentType.isCompatibleWith(MediaType.parseMediaType(CSV))) {
+            return new CsvReader(input, charset);
+        }
+        return new NdjsonReader(input, charset, objectMapper.readerFor(ProductRequest.class));
+    }
+
+    // Returns the next record, or null at the end of the feed
+    public FeedRecord next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                ProductRequest product = parse(line);
+                if (product != null) {
+                    return new FeedRecord(lineNumber, product, null);
+                }
+            } catch (IOException | RuntimeException e) {
+                return new FeedRecord(lineNumber, null, "unreadable line: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    // Returns null for lines that carry no product (the CSV header)
+    protected abstract ProductRequest parse(String line) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    public record FeedRecord(long line, ProductRequest product, String error) {
+    }
+
+    private static final class NdjsonReader extends ProductFeedReader {
+        private final ObjectReader objectReader;
+
+        private NdjsonReader(InputStream input, Charset charset, ObjectReader objectReader) {
+            super(input, charset);
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        protected ProductRequest parse(String line) throws IOException {
+            return objectReader.readValue(line);
+        }
+    }
+
+    private static final class CsvReader extends ProductFeedReader {
+        private Map<String, Integer> columns;
+
+        private CsvReader(InputStream input, Charset charset) {
+            super(input, charset);
+        }
+
+        @Override
+        protected ProductRequest parse(String line) {
+            List<String> fields = split(line);
+            if (columns == null) {
+                Map<String, Integer> header = new HashMap<>();
+                for (int i = 0; i < fields.size(); i++) {
+                    header.put(normalize(fields.get(i)), i);
+                }
+                // Rejected headers are not kept, so no data line is read against them
+                if (!header.containsKey("name")) {
+                    throw new IllegalArgumentException("CSV header has no name column");
+                }
+                columns = header;
+                return null;
+            }
+
+            ProductRequest product = new ProductRequest();
+            product.setSku(field(fields, "sku"));
+            product.setName(field(fields, "name"));
+            product.setDescription(field(fields, "description"));
+            product.setCategory(field(fields, "category"));
+            product.setImageUrl(field(fields, "imageurl"));
+            String price = field(fields, "price");
+            String quantity = field(fields, "quantity");
+            try {
+                product.setPrice(price == null ? null : new BigDecimal(price));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid price '" + price + "'");
+            }
+            try {
+                product.setQuantity(quantity == null ? null : Integer.valueOf(quantity));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid quantity '" + quantity + "'");
+            }
+            return product;
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        // "image_url", "imageUrl" and "Image URL" all name the same column
+        private static String normalize(String header) {
+            return header.replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT);
+        }
+
+        // Comma-separated fields; "" inside a quoted field is a literal quote
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
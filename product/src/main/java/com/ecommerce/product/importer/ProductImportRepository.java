@@ -0,0 +1,70 @@
+package com.ecommerce.product.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import lombok.RequiredArgsConstructor;
+
+import com.ecommerce.product.dto.ProductRequest;
+
+/**
+ * JDBC batch writes for bulk imports, bypassing the persistence context.
+ *
+ * Products without a SKU are plain INSERTs (rewritten into multi-row inserts by the
+ * Postgres driver with reWriteBatchedInserts=true). Products with a SKU go through a
+ * standard SQL MERGE on the unique sku column: new SKUs are inserted, known ones get
+ * their fields replaced and their version bumped. An update leaves the active flag
+ * alone, so a product that was deleted stays hidden.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportRepository {
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, description, price, quantity, category, image_url, "
+            + "active, version, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, TRUE, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private static final String UPSERT_SQL =
+            "MERGE INTO products p "
+            + "USING (SELECT CAST(? AS VARCHAR(255)) AS sku, CAST(? AS VARCHAR(255)) AS name, "
+            + "CAST(? AS VARCHAR(255)) AS description, CAST(? AS NUMERIC(38, 2)) AS price, "
+            + "CAST(? AS INTEGER) AS quantity, CAST(? AS VARCHAR(255)) AS category, "
+            + "CAST(? AS VARCHAR(255)) AS image_url) s "
+            + "ON p.sku = s.sku "
+            + "WHEN MATCHED THEN UPDATE SET name = s.name, description = s.description, price = s.price, "
+            + "quantity = s.quantity, category = s.category, image_url = s.image_url, "
+            + "version = p.version + 1, updated_at = CURRENT_TIMESTAMP "
+            + "WHEN NOT MATCHED THEN INSERT (sku, name, description, price, quantity, category, image_url, "
+            + "active, version, created_at, updated_at) "
+            + "VALUES (s.sku, s.name, s.description, s.price, s.quantity, s.category, s.image_url, "
+            + "TRUE, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Writes the products as at most two JDBC batches; the caller owns the transaction
+    public void write(List<ProductRequest> products) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> upserts = new ArrayList<>();
+        for (ProductRequest product : products) {
+            if (product.getSku() == null) {
+                inserts.add(new Object[] {
+                    product.getName(), product.getDescription(), product.getPrice(), product.getQuantity(),
+                    product.getCategory(), product.getImageUrl()
+                });
+            } else {
+                upserts.add(new Object[] {
+                    product.getSku(), product.getName(), product.getDescription(), product.getPrice(),
+                    product.getQuantity(), product.getCategory(), product.getImageUrl()
+                });
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+        }
+    }
+}
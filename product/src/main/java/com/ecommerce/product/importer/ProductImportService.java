@@ -0,0 +1,184 @@
+package com.ecommerce.product.importer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.product.cache.ProductCatalogCache;
+import com.ecommerce.product.dto.ImportChunkReport;
+import com.ecommerce.product.dto.ImportError;
+import com.ecommerce.product.dto.ImportSummary;
+import com.ecommerce.product.dto.ProductRequest;
+import com.ecommerce.product.search.ProductSearchIndex;
+import com.ecommerce.product.service.ProductService;
+
+/**
+ * Bulk catalog import: reads a feed incrementally and writes it in chunks.
+ *
+ * Each chunk is validated, then written with JDBC batches in its own transaction,
+ * so a bad chunk never rolls back the ones before it. If the batch fails, the chunk
+ * is retried row by row to commit the good rows and report the bad ones. The caller
+ * gets a report per chunk as it commits.
+ *
+ * The catalog cache and search index are refreshed once at the end, not per row.
+ */
+@Service
+public class ProductImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+    public static final int MAX_CHUNK_SIZE = 10_000;
+
+    private final ProductImportRepository productImportRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductService productService;
+    private final int defaultChunkSize;
+
+    public ProductImportService(
+            ProductImportRepository productImportRepository,
+            TransactionTemplate transactionTemplate,
+            ProductCatalogCache productCatalogCache,
+            ProductSearchIndex productSearchIndex,
+            ProductService productService,
+            @Value("${catalog.import.chunk-size:1000}") int defaultChunkSize) {
+        this.productImportRepository = productImportRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.productCatalogCache = productCatalogCache;
+        this.productSearchIndex = productSearchIndex;
+        this.productService = productService;
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    // chunkSize may be null to use catalog.import.chunk-size
+    public ImportSummary importProducts(ProductFeedReader reader, Integer chunkSize,
+                                        Consumer<ImportChunkReport> progress) throws IOException {
+        int size = Math.min(Math.max(chunkSize == null ? defaultChunkSize : chunkSize, 1), MAX_CHUNK_SIZE);
+        long start = System.nanoTime();
+        Chunk chunk = new Chunk(size);
+        int chunks = 0;
+        long written = 0;
+        long failed = 0;
+
+        try {
+            ProductFeedReader.FeedRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.isFull()) {
+                    ImportChunkReport report = writeChunk(++chunks, chunk);
+                    written += report.getWritten();
+                    failed += report.getFailed();
+                    progress.accept(report);
+                    chunk = new Chunk(size);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                ImportChunkReport report = writeChunk(++chunks, chunk);
+                written += report.getWritten();
+                failed += report.getFailed();
+                progress.accept(report);
+            }
+        } finally {
+            // Ids of updated rows are unknown here, so drop the whole cache and re-index;
+            // searches keep using the previous index until the new one is swapped in
+            if (written > 0) {
+                productCatalogCache.invalidateAll();
+                productSearchIndex.rebuild(productService::streamActiveProducts);
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Product import finished: chunks={}, written={}, failed={}, elapsedMs={}",
+            chunks, written, failed, elapsedMs);
+        return new ImportSummary(chunks, written, failed, elapsedMs);
+    }
+
+    private ImportChunkReport writeChunk(int number, Chunk chunk) {
+        long start = System.nanoTime();
+        List<ImportError> errors = new ArrayList<>(chunk.errors);
+        int written;
+        try {
+            transactionTemplate.executeWithoutResult(status -> productImportRepository.write(chunk.products));
+            written = chunk.products.size();
+        } catch (DataAccessException e) {
+            logger.warn("Import chunk {} failed as a batch, retrying row by row: {}", number,
+                NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            written = 0;
+            for (int i = 0; i < chunk.products.size(); i++) {
+                List<ProductRequest> row = List.of(chunk.products.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> productImportRepository.write(row));
+                    written++;
+                } catch (DataAccessException rowFailure) {
+                    errors.add(new ImportError(chunk.lines.get(i),
+                        NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                }
+            }
+            errors.sort(Comparator.comparingLong(ImportError::getLine));
+        }
+        return new ImportChunkReport(number, chunk.firstLine, chunk.lastLine, written, errors.size(), errors,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Null when the product can be written
+    static String validate(ProductRequest product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            return "name is required";
+        }
+        if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            return "price must be zero or more";
+        }
+        if (product.getQuantity() == null || product.getQuantity() < 0) {
+            return "quantity must be zero or more";
+        }
+        return null;
+    }
+
+    // Feed lines read since the last write: valid products plus the lines rejected before writing
+    private static final class Chunk {
+        private final int size;
+        private final List<ProductRequest> products;
+        private final List<Long> lines;
+        private final List<ImportError> errors = new ArrayList<>();
+        private long firstLine;
+        private long lastLine;
+
+        private Chunk(int size) {
+            this.size = size;
+            this.products = new ArrayList<>(size);
+            this.lines = new ArrayList<>(size);
+        }
+
+        private void add(ProductFeedReader.FeedRecord record) {
+            if (isEmpty()) {
+                firstLine = record.line();
+            }
+            lastLine = record.line();
+            String error = record.error() != null ? record.error() : validate(record.product());
+            if (error != null) {
+                errors.add(new ImportError(record.line(), error));
+            } else {
+                products.add(record.product());
+                lines.add(record.line());
+            }
+        }
+
+        private boolean isFull() {
+            return products.size() + errors.size() >= size;
+        }
+
+        private boolean isEmpty() {
+            return products.isEmpty() && errors.isEmpty();
+        }
+    }
+}
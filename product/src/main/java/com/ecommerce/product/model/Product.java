@@ -20,6 +20,10 @@ public class Product {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Supplier SKU; bulk imports upsert on it. Optional for products created one by one
+    @Column(unique = true)
+    private String sku;
+    
     private String name;
     private String description;
     private BigDecimal price;
@@ -28,6 +32,11 @@ public class Product {
     private String imageUrl;
     private boolean active = true;
     
+    // Optimistic lock: a PUT that read the product before a stock reservation
+    // changed it fails instead of overwriting the reserved quantity
+    @Version
+    private Long version;
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
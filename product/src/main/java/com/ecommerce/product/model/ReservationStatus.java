@@ -0,0 +1,9 @@
+package com.ecommerce.product.model;
+
+// RESERVED is the only state that can change; the other three are final
+public enum ReservationStatus {
+    RESERVED,     // Stock taken, waiting for commit or release
+    COMMITTED,    // Order placed; the stock stays taken
+    RELEASED,     // Given back by the caller
+    EXPIRED       // Given back by the expiry job
+}
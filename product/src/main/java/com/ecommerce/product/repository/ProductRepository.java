@@ -1,8 +1,14 @@
 package com.ecommerce.product.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.ecommerce.product.model.Product;
@@ -13,12 +19,37 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // JPA automatically generates: SELECT * FROM products WHERE active = true
     List<Product> findByActiveTrue();
     
+    // Keyset pagination: seeks on the primary key index past the previous page's last id
+    // SELECT * FROM products WHERE active = true AND id > :cursor ORDER BY id LIMIT :limit
+    List<Product> findByActiveTrueAndIdGreaterThanOrderByIdAsc(Long cursor, Limit limit);
+    
+    // Server-side cursor for NDJSON streaming; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p WHERE p.active = true ORDER BY p.id")
+    Stream<Product> streamActiveProducts();
+    
     // Custom JPQL Query for searching products
     @Query("SELECT p FROM Product p WHERE p.active = true " +
            "AND p.quantity > 0 " +
            "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Product> searchProducts(@Param("keyword") String keyword);
     
+    // Atomic stock decrement: matches no row (returns 0) unless enough stock is left, so
+    // concurrent reservations of the same product can never take it below zero
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.active = true AND p.quantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    // Gives released or expired reservations back
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
     // All CRUD methods automatically available:
     // - save(Product product)
     // - findById(Long id)
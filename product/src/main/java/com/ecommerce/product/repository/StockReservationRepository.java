@@ -0,0 +1,33 @@
+package com.ecommerce.product.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ecommerce.product.model.ReservationStatus;
+import com.ecommerce.product.model.StockReservation;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    // Compare-and-set on the status: of a racing commit, release and expiry, exactly one gets 1
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") String id,
+                   @Param("from") ReservationStatus from,
+                   @Param("to") ReservationStatus to);
+
+    @Query("SELECT r.status FROM StockReservation r WHERE r.id = :id")
+    ReservationStatus findStatusById(@Param("id") String id);
+
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<String> findIdsByStatusAndExpiresAtBefore(@Param("status") ReservationStatus status,
+                                                   @Param("now") LocalDateTime now,
+                                                   Limit limit);
+}
@@ -0,0 +1,252 @@
+package com.ecommerce.product.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.product.dto.ProductResponse;
+
+/**
+ * In-memory inverted index over product name, category and description.
+ *
+ * Terms are lowercased alphanumeric tokens kept in a sorted map, so each query
+ * token matches every indexed token it is a prefix of ("lap" finds "laptop").
+ * All query tokens must match; documents are ranked by field weight with a bonus
+ * for exact token matches. Only active products with stock are returned, which
+ * mirrors ProductRepository.searchProducts.
+ *
+ * Built once at startup (see ProductSearchIndexInitializer) and kept current by
+ * the write methods of ProductService, and by SearchIndexRefresher for stock
+ * reservations. A rebuild fills a new index next to the live one, which keeps
+ * serving searches and taking writes, and swaps it in when done.
+ */
+@Component
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH_BONUS = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Terms live = new Terms();
+
+    // Ids written while a rebuild is running; the live index has their latest state
+    private final Set<Long> touchedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Adds or replaces a product; inactive products are removed from the index
+    public void index(ProductResponse product) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                touchedDuringRebuild.add(product.getId());
+            }
+            live.put(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                touchedDuringRebuild.add(productId);
+            }
+            live.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replaces the whole index with the products pushed by the source. Searches keep
+    // reading the previous index until the new one is swapped in; if the source fails,
+    // the previous index stays
+    public void rebuild(Consumer<Consumer<ProductResponse>> source) {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            touchedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Terms rebuilt = new Terms();
+        boolean built = false;
+        try {
+            // Only this thread sees the new index until the swap
+            source.accept(rebuilt::put);
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (built) {
+                    // Writes made during the rebuild are newer than what the source read
+                    for (Long productId : touchedDuringRebuild) {
+                        IndexedProduct current = live.documents.get(productId);
+                        if (current == null) {
+                            rebuilt.remove(productId);
+                        } else {
+                            rebuilt.put(current.product());
+                        }
+                    }
+                    live = rebuilt;
+                    ready = true;
+                    logger.info("Product search index built: documents={}, terms={}",
+                        live.documents.size(), live.postings.size());
+                }
+                rebuilding = false;
+                touchedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Returns one page of matching products, best match first
+    public List<ProductResponse> search(String query, int page, int size) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty() || size <= 0 || page < 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Integer> termScores = live.scoreTerm(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Every query term has to match
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<ProductResponse> matches = new ArrayList<>(scores.size());
+            Map<Long, Integer> finalScores = scores;
+            Map<Long, IndexedProduct> documents = live.documents;
+            scores.keySet().stream()
+                .map(documents::get)
+                .filter(document -> document.product().getQuantity() != null
+                        && document.product().getQuantity() > 0)
+                .sorted(Comparator.<IndexedProduct>comparingInt(
+                            document -> finalScores.get(document.product().getId())).reversed()
+                        .thenComparing(document -> document.product().getId()))
+                .skip((long) page * size)
+                .limit(size)
+                .forEach(document -> matches.add(document.product()));
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addTerms(Map<String, Integer> termWeights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            termWeights.merge(token, weight, Math::max);
+        }
+    }
+
+    private record IndexedProduct(ProductResponse product, Set<String> terms) {
+    }
+
+    // Documents and postings of one index generation; guarded by the lock once live
+    private static final class Terms {
+        private final Map<Long, IndexedProduct> documents = new HashMap<>();
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+        // Best score per product for one query term, over all indexed terms it prefixes
+        Map<Long, Integer> scoreTerm(String queryTerm) {
+            Map<Long, Integer> termScores = new HashMap<>();
+            postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false)
+                .forEach((term, weights) -> {
+                    int bonus = term.equals(queryTerm) ? EXACT_MATCH_BONUS : 1;
+                    weights.forEach((id, weight) -> termScores.merge(id, weight * bonus, Math::max));
+                });
+            return termScores;
+        }
+
+        void put(ProductResponse product) {
+            remove(product.getId());
+            if (!product.isActive()) {
+                return;
+            }
+
+            Map<String, Integer> termWeights = new HashMap<>();
+            addTerms(termWeights, product.getName(), NAME_WEIGHT);
+            addTerms(termWeights, product.getCategory(), CATEGORY_WEIGHT);
+            addTerms(termWeights, product.getDescription(), DESCRIPTION_WEIGHT);
+
+            termWeights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(product.getId(), weight));
+            documents.put(product.getId(), new IndexedProduct(product, termWeights.keySet()));
+        }
+
+        void remove(Long productId) {
+            IndexedProduct existing = documents.remove(productId);
+            if (existing == null) {
+                return;
+            }
+            for (String term : existing.terms()) {
+                Map<Long, Integer> ids = postings.get(term);
+                if (ids != null) {
+                    ids.remove(productId);
+                    if (ids.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+}
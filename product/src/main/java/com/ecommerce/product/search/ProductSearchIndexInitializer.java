@@ -0,0 +1,24 @@
+package com.ecommerce.product.search;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import lombok.RequiredArgsConstructor;
+
+import com.ecommerce.product.service.ProductService;
+
+/**
+ * Builds the search index from the database once the application has started.
+ * Until it finishes, ProductService keeps answering searches with the JPQL query.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndexInitializer {
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductService productService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        productSearchIndex.rebuild(productService::streamActiveProducts);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.product.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import lombok.RequiredArgsConstructor;
+
+import com.ecommerce.product.service.ProductService;
+
+/**
+ * Re-indexes products whose stock changed, off the request thread.
+ *
+ * Changed ids are queued and coalesced: a hot product reserved a thousand times
+ * between two drains is read and indexed once. Drains never overlap, and each id
+ * leaves the queue before it is read, so a change committed after the read queues
+ * it again and the last index write always comes from a read after the last commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexRefresher {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexRefresher.class);
+    private static final int BATCH_SIZE = ProductService.MAX_BATCH_SIZE;
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductService productService;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    // Called after the change committed; never blocks
+    public void refresh(Collection<Long> productIds) {
+        pending.addAll(productIds);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.search.refresh-interval-ms:200}")
+    public void drain() {
+        while (!pending.isEmpty()) {
+            List<Long> batch = new ArrayList<>(Math.min(pending.size(), BATCH_SIZE));
+            Iterator<Long> ids = pending.iterator();
+            while (ids.hasNext() && batch.size() < BATCH_SIZE) {
+                batch.add(ids.next());
+                ids.remove();
+            }
+            try {
+                productService.loadProducts(batch).forEach(productSearchIndex::index);
+            } catch (RuntimeException e) {
+                pending.addAll(batch);
+                logger.warn("Search index refresh failed, will retry: products={}, error={}",
+                    batch.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+}
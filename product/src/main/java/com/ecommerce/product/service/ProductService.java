@@ -1,27 +1,50 @@
 package com.ecommerce.product.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 
+import io.micrometer.core.annotation.Timed;
+
+import com.ecommerce.product.cache.ProductCatalogCache;
 import com.ecommerce.product.model.Product;
+import com.ecommerce.product.dto.ProductPage;
 import com.ecommerce.product.dto.ProductRequest;
 import com.ecommerce.product.dto.ProductResponse;
 import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.search.ProductSearchIndex;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
+    private static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 500;
+    
     private final ProductRepository productRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final EntityManager entityManager;
     
     // Create product
     public ProductResponse createProduct(ProductRequest request) {
         Product product = new Product();
         updateProductFromRequest(product, request);
         Product savedProduct = productRepository.save(product);
-        return mapToProductResponse(savedProduct);
+        ProductResponse response = mapToProductResponse(savedProduct);
+        productCatalogCache.put(response);
+        productCatalogCache.invalidateListing();
+        productSearchIndex.index(response);
+        return response;
     }
     
     // Update product
@@ -30,33 +53,125 @@ public class ProductService {
                                .map(existingProduct -> {
                                    updateProductFromRequest(existingProduct, request);
                                    Product savedProduct = productRepository.save(existingProduct);
-                                   return mapToProductResponse(savedProduct);
+                                   ProductResponse response = mapToProductResponse(savedProduct);
+                                   productCatalogCache.put(response);
+                                   productCatalogCache.invalidateListing();
+                                   productSearchIndex.index(response);
+                                   return response;
                                });
     }
     
-    // Get all products
+    // Get all products (served from the cached active listing)
     public List<ProductResponse> getAllProducts() {
-        return productRepository.findByActiveTrue()
+        return productCatalogCache.getActiveListing(() -> productRepository.findByActiveTrue()
                 .stream()
+                .map(this::mapToProductResponse)
+                .collect(Collectors.toList()));
+    }
+    
+    // Get one keyset page of active products, starting after the cursor id
+    public ProductPage getProductPage(Long cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page follows
+        List<Product> products = productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(
+                cursor == null ? 0L : cursor, Limit.of(pageSize + 1));
+        
+        boolean hasMore = products.size() > pageSize;
+        List<ProductResponse> items = products.stream()
+                .limit(pageSize)
+                .map(this::mapToProductResponse)
+                .collect(Collectors.toList());
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new ProductPage(items, nextCursor);
+    }
+    
+    // Stream all active products row by row from the JDBC cursor without building a list
+    @Transactional(readOnly = true)
+    public void streamActiveProducts(Consumer<ProductResponse> sink) {
+        try (Stream<Product> products = productRepository.streamActiveProducts()) {
+            products.forEach(product -> {
+                sink.accept(mapToProductResponse(product));
+                // Keep the persistence context from growing with the catalog
+                entityManager.detach(product);
+            });
+        }
+    }
+    
+    // Get many products at once: cache hits first, then one IN query for the misses
+    public List<ProductResponse> getProductsByIds(Collection<Long> ids) {
+        List<Long> requestedIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<ProductResponse> found = new ArrayList<>(requestedIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            ProductResponse cached = productCatalogCache.getIfPresent(id);
+            if (cached != null) {
+                found.add(cached);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        
+        if (!missingIds.isEmpty()) {
+            productRepository.findAllById(missingIds).forEach(product -> {
+                ProductResponse response = mapToProductResponse(product);
+                productCatalogCache.putIfAbsent(response);
+                found.add(response);
+            });
+        }
+        return found;
+    }
+    
+    // Reads the products from the database, bypassing the cache
+    public List<ProductResponse> loadProducts(Collection<Long> ids) {
+        return productRepository.findAllById(ids).stream()
                 .map(this::mapToProductResponse)
                 .collect(Collectors.toList());
     }
     
+    // Get single product (read-through cache)
+    public Optional<ProductResponse> getProduct(Long id) {
+        return productCatalogCache.get(id, key -> productRepository.findById(key)
+                .map(this::mapToProductResponse));
+    }
+    
     // Delete product (soft delete)
     public boolean deleteProduct(Long id) {
         return productRepository.findById(id)
                 .map(product -> {
                     product.setActive(false);
-                    productRepository.save(product);
+                    Product savedProduct = productRepository.save(product);
+                    productCatalogCache.put(mapToProductResponse(savedProduct));
+                    productCatalogCache.invalidateListing();
+                    productSearchIndex.remove(savedProduct.getId());
                     return true;
                 })
                 .orElse(false);
     }
     
-    // Search products
+    // Search products (ranked, every match); falls back to the LIKE query until the index is built
+    @Timed(value = "product.search", description = "Time to search the catalog")
     public List<ProductResponse> searchProducts(String keyword) {
+        if (productSearchIndex.isReady()) {
+            return productSearchIndex.search(keyword, 0, Integer.MAX_VALUE);
+        }
+        return productRepository.searchProducts(keyword)
+                .stream()
+                .map(this::mapToProductResponse)
+                .collect(Collectors.toList());
+    }
+    
+    // Search products (ranked, paginated); falls back to the LIKE query until the index is built
+    @Timed(value = "product.search", description = "Time to search the catalog")
+    public List<ProductResponse> searchProducts(String keyword, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageNumber = Math.max(page, 0);
+        if (productSearchIndex.isReady()) {
+            return productSearchIndex.search(keyword, pageNumber, pageSize);
+        }
         return productRepository.searchProducts(keyword)
                 .stream()
+                .skip((long) pageNumber * pageSize)
+                .limit(pageSize)
                 .map(this::mapToProductResponse)
                 .collect(Collectors.toList());
     }
@@ -65,6 +180,7 @@ public class ProductService {
     private ProductResponse mapToProductResponse(Product product) {
         ProductResponse response = new ProductResponse();
         response.setId(product.getId());
+        response.setSku(product.getSku());
         response.setName(product.getName());
         response.setDescription(product.getDescription());
         response.setPrice(product.getPrice());
@@ -77,6 +193,10 @@ public class ProductService {
     
     // Mapping: DTO → Entity
     private void updateProductFromRequest(Product product, ProductRequest request) {
+        // SKUs are optional in requests; one without a SKU keeps the stored one
+        if (request.getSku() != null) {
+            product.setSku(request.getSku());
+        }
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
@@ -0,0 +1,201 @@
+package com.ecommerce.product.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.product.cache.ProductCatalogCache;
+import com.ecommerce.product.dto.ReservationItem;
+import com.ecommerce.product.dto.StockReservationResponse;
+import com.ecommerce.product.model.ReservationStatus;
+import com.ecommerce.product.model.ReservedItem;
+import com.ecommerce.product.model.StockReservation;
+import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.repository.StockReservationRepository;
+import com.ecommerce.product.search.SearchIndexRefresher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Stock reservations: reserve, then commit or release, over a batch of products.
+ *
+ * Reserving takes the stock right away with one conditional UPDATE per product
+ * (ProductRepository.decrementStock), all in one transaction. If any product is
+ * short, the whole reservation rolls back. The database row lock serializes writers
+ * on a hot product, and the WHERE clause makes overselling impossible without any
+ * lock held in this JVM. Products are updated in id order, so two reservations
+ * never deadlock on each other's rows.
+ *
+ * Commit, release and expiry are a compare-and-set on the reservation status, so
+ * when they race only one wins. Release and expiry give the stock back; release also
+ * undoes a commit, for a caller whose order failed after committing. A scheduled
+ * job expires reservations that are neither committed nor released before
+ * stock.reservation.ttl. Callers may choose the reservation id, which makes reserve,
+ * like commit and release, safe to repeat.
+ */
+@Service
+public class StockReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+    public static final int MAX_ITEMS = ProductService.MAX_BATCH_SIZE;
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final SearchIndexRefresher searchIndexRefresher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int expiryBatchSize;
+    private final MeterRegistry meterRegistry;
+
+    public StockReservationService(
+            StockReservationRepository reservationRepository,
+            ProductRepository productRepository,
+            ProductCatalogCache productCatalogCache,
+            SearchIndexRefresher searchIndexRefresher,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${stock.reservation.ttl:15m}") Duration ttl,
+            @Value("${stock.reservation.expiry-batch-size:500}") int expiryBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.productCatalogCache = productCatalogCache;
+        this.searchIndexRefresher = searchIndexRefresher;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.expiryBatchSize = expiryBatchSize;
+    }
+
+    // Takes the stock for every item or for none; empty when any product is short or unknown.
+    // An id that is already taken returns that reservation as it is now, whatever its status
+    @Transactional
+    public Optional<StockReservationResponse> reserve(String id, List<ReservationItem> items) {
+        if (id != null) {
+            Optional<StockReservation> existing = reservationRepository.findById(id);
+            if (existing.isPresent()) {
+                return existing.map(reservation -> toResponse(reservation, reservation.getStatus()));
+            }
+        }
+
+        Map<Long, Integer> quantities = new TreeMap<>();
+        items.forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+
+        StockReservation reservation = new StockReservation();
+        reservation.setId(id != null ? id : UUID.randomUUID().toString());
+        reservation.setExpiresAt(LocalDateTime.now().plus(ttl));
+        quantities.forEach((productId, quantity) -> reservation.getItems().add(new ReservedItem(productId, quantity)));
+        // Insert first, so the product row locks below are held for as short a time as possible
+        reservationRepository.saveAndFlush(reservation);
+
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (productRepository.decrementStock(entry.getKey(), entry.getValue()) == 0) {
+                logger.info("Stock reservation rejected: productId={}, quantity={}", entry.getKey(), entry.getValue());
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                count("rejected");
+                return Optional.empty();
+            }
+        }
+
+        evictAfterCommit(quantities.keySet());
+        count("reserved");
+        return Optional.of(toResponse(reservation, ReservationStatus.RESERVED));
+    }
+
+    // Makes the reservation permanent; the response shows the final status (409 unless COMMITTED)
+    @Transactional
+    public Optional<StockReservationResponse> commit(String id) {
+        return finish(id, ReservationStatus.COMMITTED);
+    }
+
+    // Gives the stock back, also of a committed reservation; the response shows the final
+    // status (409 unless RELEASED)
+    @Transactional
+    public Optional<StockReservationResponse> release(String id) {
+        return finish(id, ReservationStatus.RELEASED);
+    }
+
+    // One transaction per reservation, so a failure only skips that one until the next run
+    @Scheduled(fixedDelayString = "${stock.reservation.expiry-interval-ms:10000}")
+    public void expireReservations() {
+        List<String> ids = reservationRepository.findIdsByStatusAndExpiresAtBefore(
+                ReservationStatus.RESERVED, LocalDateTime.now(), Limit.of(expiryBatchSize));
+        for (String id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> finish(id, ReservationStatus.EXPIRED));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to expire stock reservation {}: {}", id, e.getMessage());
+            }
+        }
+        if (!ids.isEmpty()) {
+            logger.info("Expired stock reservations: count={}", ids.size());
+        }
+    }
+
+    private Optional<StockReservationResponse> finish(String id, ReservationStatus target) {
+        return reservationRepository.findById(id).map(reservation -> {
+            if (reservationRepository.transition(id, ReservationStatus.RESERVED, target) == 0
+                    && (target != ReservationStatus.RELEASED
+                        || reservationRepository.transition(id, ReservationStatus.COMMITTED, target) == 0)) {
+                // Already finished by someone else (or, for a commit, released or expired)
+                return toResponse(reservation, reservationRepository.findStatusById(id));
+            }
+            if (target != ReservationStatus.COMMITTED) {
+                List<ReservedItem> items = reservation.getItems().stream()
+                        .sorted(Comparator.comparing(ReservedItem::getProductId))
+                        .toList();
+                items.forEach(item -> productRepository.incrementStock(item.getProductId(), item.getQuantity()));
+                evictAfterCommit(items.stream().map(ReservedItem::getProductId).toList());
+            }
+            count(target.name().toLowerCase());
+            return toResponse(reservation, target);
+        });
+    }
+
+    // Cached products, listing pages and the search index would otherwise show the old
+    // quantity, and keep finding a product that just sold out. The index is refreshed
+    // in the background, coalesced per product, so no reservation waits for it
+    private void evictAfterCommit(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(productCatalogCache::evict);
+                productCatalogCache.invalidateListing();
+                searchIndexRefresher.refresh(ids);
+            }
+        });
+    }
+
+    private void count(String result) {
+        Counter.builder("stock.reservations")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static StockReservationResponse toResponse(StockReservation reservation, ReservationStatus status) {
+        List<ReservationItem> items = reservation.getItems().stream()
+                .map(item -> new ReservationItem(item.getProductId(), item.getQuantity()))
+                .toList();
+        return new StockReservationResponse(reservation.getId(), status, items, reservation.getExpiresAt());
+    }
+}
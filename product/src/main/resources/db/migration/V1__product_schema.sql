@@ -0,0 +1,43 @@
+-- Product service schema. Hibernate only validates it (ddl-auto: validate), so every
+-- entity change needs a new V<n>__<description>.sql next to this one.
+-- Kept to SQL that runs on both PostgreSQL and the H2 database used by the tests.
+
+CREATE TABLE products (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    sku          VARCHAR(255),
+    name         VARCHAR(255),
+    description  VARCHAR(255),
+    price        NUMERIC(38, 2),
+    quantity     INTEGER,
+    category     VARCHAR(255),
+    image_url    VARCHAR(255),
+    active       BOOLEAN        NOT NULL,
+    version      BIGINT,
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6),
+    CONSTRAINT pk_products PRIMARY KEY (id),
+    -- Bulk import upserts MERGE on the SKU
+    CONSTRAINT uk_products_sku UNIQUE (sku)
+);
+
+CREATE TABLE stock_reservations (
+    id          VARCHAR(36)   NOT NULL,
+    status      VARCHAR(16)   NOT NULL,
+    expires_at  TIMESTAMP(6)  NOT NULL,
+    created_at  TIMESTAMP(6),
+    CONSTRAINT pk_stock_reservations PRIMARY KEY (id)
+);
+
+-- Expiry job: WHERE status = 'RESERVED' AND expires_at < now ORDER BY expires_at
+CREATE INDEX idx_stock_reservations_status_expires ON stock_reservations (status, expires_at);
+
+CREATE TABLE stock_reservation_items (
+    reservation_id  VARCHAR(36)  NOT NULL,
+    product_id      BIGINT       NOT NULL,
+    quantity        INTEGER      NOT NULL,
+    CONSTRAINT fk_stock_reservation_items_reservation
+        FOREIGN KEY (reservation_id) REFERENCES stock_reservations (id)
+);
+
+-- Loading a reservation's items on commit, release and expiry
+CREATE INDEX idx_stock_reservation_items_reservation ON stock_reservation_items (reservation_id);
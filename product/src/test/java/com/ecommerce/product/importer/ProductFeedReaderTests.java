@@ -0,0 +1,127 @@
+package com.ecommerce.product.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import com.ecommerce.product.dto.ProductRequest;
+import com.ecommerce.product.importer.ProductFeedReader.FeedRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Feed parsing: CSV header normalization, quoted fields, and lines that do not parse
+ * coming back as error records without ending the feed.
+ */
+class ProductFeedReaderTests {
+    private static final MediaType CSV = MediaType.parseMediaType(ProductFeedReader.CSV);
+    private static final MediaType NDJSON = MediaType.parseMediaType(ProductFeedReader.NDJSON);
+
+    @Test
+    void csvHeadersMatchInAnyOrderAndSpelling() throws IOException {
+        List<FeedRecord> records = read(CSV, """
+            Image URL,SKU,name,Price,quantity,warehouse
+            http://img/1.png,sku-1,Widget,19.99,5,north
+            """);
+
+        assertThat(records).hasSize(1);
+        ProductRequest product = records.get(0).product();
+        assertThat(product.getSku()).isEqualTo("sku-1");
+        assertThat(product.getName()).isEqualTo("Widget");
+        assertThat(product.getPrice()).isEqualByComparingTo(new BigDecimal("19.99"));
+        assertThat(product.getQuantity()).isEqualTo(5);
+        assertThat(product.getImageUrl()).isEqualTo("http://img/1.png");
+        assertThat(product.getDescription()).isNull();
+    }
+
+    @Test
+    void csvQuotedFieldsKeepCommasAndEscapedQuotes() throws IOException {
+        List<FeedRecord> records = read(CSV, """
+            sku,name,description,price
+            sku-1,"Widget, large","The ""big"" one",5
+            """);
+
+        ProductRequest product = records.get(0).product();
+        assertThat(product.getName()).isEqualTo("Widget, large");
+        assertThat(product.getDescription()).isEqualTo("The \"big\" one");
+    }
+
+    @Test
+    void csvEmptyAndMissingFieldsAreNull() throws IOException {
+        List<FeedRecord> records = read(CSV, """
+            sku,name,category,price
+            , Widget ,
+            """);
+
+        ProductRequest product = records.get(0).product();
+        assertThat(product.getSku()).isNull();
+        assertThat(product.getName()).isEqualTo("Widget");
+        assertThat(product.getCategory()).isNull();
+        assertThat(product.getPrice()).isNull();
+    }
+
+    @Test
+    void csvBadLinesBecomeErrorsAndTheFeedContinues() throws IOException {
+        List<FeedRecord> records = read(CSV, """
+            sku,name,price,quantity
+            sku-1,Widget,abc,1
+
+            sku-2,Gadget,2,many
+            sku-3,"Gizmo,3,1
+            sku-4,Doohickey,4,1
+            """);
+
+        assertThat(records).extracting(FeedRecord::line).containsExactly(2L, 4L, 5L, 6L);
+        assertThat(records.get(0).error()).contains("invalid price 'abc'");
+        assertThat(records.get(1).error()).contains("invalid quantity 'many'");
+        assertThat(records.get(2).error()).contains("unterminated quoted field");
+        assertThat(records.get(3).error()).isNull();
+        assertThat(records.get(3).product().getSku()).isEqualTo("sku-4");
+    }
+
+    @Test
+    void csvHeaderWithoutNameIsAnError() throws IOException {
+        List<FeedRecord> records = read(CSV, """
+            sku,price
+            sku-1,5
+            """);
+
+        assertThat(records).allSatisfy(record -> {
+            assertThat(record.product()).isNull();
+            assertThat(record.error()).contains("CSV header has no name column");
+        });
+    }
+
+    @Test
+    void ndjsonBadLineBecomesAnError() throws IOException {
+        List<FeedRecord> records = read(NDJSON, """
+            {"sku":"sku-1","name":"Widget","price":1.5,"quantity":3}
+            {"sku":"sku-2",
+            {"sku":"sku-3","name":"Gadget","price":2,"quantity":1}
+            """);
+
+        assertThat(records).extracting(FeedRecord::line).containsExactly(1L, 2L, 3L);
+        assertThat(records.get(0).product().getName()).isEqualTo("Widget");
+        assertThat(records.get(1).error()).startsWith("unreadable line");
+        assertThat(records.get(2).product().getSku()).isEqualTo("sku-3");
+    }
+
+    private static List<FeedRecord> read(MediaType contentType, String feed) throws IOException {
+        List<FeedRecord> records = new ArrayList<>();
+        try (ProductFeedReader reader = ProductFeedReader.open(contentType,
+                new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)), new ObjectMapper())) {
+            FeedRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
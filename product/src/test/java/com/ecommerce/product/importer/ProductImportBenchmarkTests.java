@@ -0,0 +1,115 @@
+package com.ecommerce.product.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.product.cache.ProductCatalogCache;
+import com.ecommerce.product.dto.ImportSummary;
+import com.ecommerce.product.dto.ProductRequest;
+import com.ecommerce.product.search.ProductSearchIndex;
+import com.ecommerce.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Rows per second for loading a feed one createProduct call at a time versus
+ * ProductImportService, and for re-importing the same SKUs (the upsert path),
+ * on an in-memory H2 catalog.
+ *
+ * Opt-in: mvn test -Dbenchmark=true -Dtest=ProductImportBenchmarkTests
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Import({ProductImportService.class, ProductImportRepository.class, ProductService.class,
+        ProductCatalogCache.class, ProductSearchIndex.class, ProductImportBenchmarkTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductImportBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportBenchmarkTests.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType(ProductFeedReader.NDJSON);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 50_000})
+    void perRowVersusBulkImport(int rows) throws Exception {
+        jdbcTemplate.update("DELETE FROM products");
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            productService.createProduct(product(i, "row-"));
+        }
+        long perRowNanos = System.nanoTime() - start;
+
+        jdbcTemplate.update("DELETE FROM products");
+        byte[] feed = feed(rows);
+        long importNanos = timeImport(feed, rows);
+        // Same SKUs again: every row becomes an update
+        long reimportNanos = timeImport(feed, rows);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class)).isEqualTo(rows);
+        logger.info("rows={} perRow={} rows/s import={} rows/s reimport={} rows/s",
+            rows, rate(rows, perRowNanos), rate(rows, importNanos), rate(rows, reimportNanos));
+    }
+
+    private long timeImport(byte[] feed, int rows) throws Exception {
+        long start = System.nanoTime();
+        try (ProductFeedReader reader = ProductFeedReader.open(NDJSON, new ByteArrayInputStream(feed), objectMapper)) {
+            ImportSummary summary = productImportService.importProducts(reader, null, report -> { });
+            assertThat(summary.getWritten()).isEqualTo(rows);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private byte[] feed(int rows) throws Exception {
+        StringBuilder feed = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            feed.append(objectMapper.writeValueAsString(product(i, "SKU-"))).append('\n');
+        }
+        return feed.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ProductRequest product(int i, String skuPrefix) {
+        return new ProductRequest(skuPrefix + i, "Product " + i, "Imported product " + i,
+            BigDecimal.valueOf(10 + i % 500), 100, "category-" + (i % 20), null);
+    }
+
+    private static long rate(int rows, long nanos) {
+        return rows * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
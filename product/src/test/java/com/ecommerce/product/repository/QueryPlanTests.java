@@ -0,0 +1,103 @@
+package com.ecommerce.product.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import com.ecommerce.observability.QueryPlans;
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.ReservationStatus;
+import com.ecommerce.product.model.ReservedItem;
+import com.ecommerce.product.model.StockReservation;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Query plan check: runs the repository queries against the schema built by the
+ * Flyway migrations, EXPLAINs every statement Hibernate sent and fails when a hot
+ * query reads its table with a full scan instead of an index. All plans are logged.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Import(QueryPlans.Inspection.class)
+class QueryPlanTests {
+    private static final int PRODUCTS = 1_000;
+    private static final int RESERVATIONS = 200;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QueryPlans queryPlans;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<String> reservationIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setSku("sku-" + i);
+            product.setName("product " + i);
+            product.setPrice(BigDecimal.TEN);
+            product.setQuantity(100);
+            product.setActive(i % 10 != 0);
+            productIds.add(productRepository.save(product).getId());
+        }
+        for (int i = 0; i < RESERVATIONS; i++) {
+            StockReservation reservation = new StockReservation();
+            reservation.setId(UUID.randomUUID().toString());
+            reservation.setStatus(i % 4 == 0 ? ReservationStatus.RESERVED : ReservationStatus.COMMITTED);
+            reservation.setExpiresAt(LocalDateTime.now().plusMinutes(i - RESERVATIONS / 2));
+            reservation.getItems().add(new ReservedItem(productIds.get(i), 1));
+            reservation.getItems().add(new ReservedItem(productIds.get(i + 1), 2));
+            reservationIds.add(reservationRepository.save(reservation).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void hotQueriesUseAnIndex() {
+        Long productId = productIds.get(PRODUCTS / 2);
+        String reservationId = reservationIds.get(RESERVATIONS / 2);
+        queryPlans.hot("product", () -> productRepository.findById(productId));
+        queryPlans.hot("catalog page", () -> productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(productId, Limit.of(50)));
+        queryPlans.hot("stock decrement", () -> productRepository.decrementStock(productId, 1));
+        queryPlans.hot("stock increment", () -> productRepository.incrementStock(productId, 1));
+        queryPlans.hot("reservation", () -> reservationRepository.findById(reservationId)
+            .ifPresent(reservation -> reservation.getItems().size()));
+        queryPlans.hot("reservation status", () -> reservationRepository.findStatusById(reservationId));
+        queryPlans.hot("reservation transition", () ->
+            reservationRepository.transition(reservationId, ReservationStatus.COMMITTED, ReservationStatus.RELEASED));
+        queryPlans.hot("expired reservations", () -> reservationRepository.findIdsByStatusAndExpiresAtBefore(
+            ReservationStatus.RESERVED, LocalDateTime.now(), Limit.of(500)));
+
+        // Whole-catalog reads (cache warm-up, NDJSON export, search index rebuild)
+        queryPlans.logged("active products", () -> productRepository.findByActiveTrue());
+        queryPlans.logged("active products stream", () -> {
+            try (Stream<Product> products = productRepository.streamActiveProducts()) {
+                products.count();
+            }
+        });
+        // Substring match: no B-tree index applies; the in-memory ProductSearchIndex serves search
+        queryPlans.logged("product search", () -> productRepository.searchProducts("product 5"));
+
+        queryPlans.assertNoFullScans();
+    }
+}
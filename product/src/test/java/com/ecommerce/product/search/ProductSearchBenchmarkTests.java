@@ -0,0 +1,109 @@
+package com.ecommerce.product.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.repository.ProductRepository;
+
+/**
+ * Compares search latency of ProductSearchIndex against the LIKE query in
+ * ProductRepository.searchProducts on an in-memory H2 catalog.
+ *
+ * Opt-in, as the 1M run needs a few GB of heap:
+ *   mvn test -Dbenchmark=true -Dtest=ProductSearchBenchmarkTests -DargLine=-Xmx4g
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Import(ProductSearchIndex.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductSearchBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchBenchmarkTests.class);
+    private static final String[] WORDS = {
+        "laptop", "phone", "tablet", "monitor", "keyboard", "mouse", "camera", "speaker",
+        "charger", "cable", "headset", "router", "printer", "watch", "drone", "console"
+    };
+    private static final String[] QUERIES = {"laptop", "pho", "wireless camera", "cable"};
+    private static final int ITERATIONS = 50;
+    private static final int INSERT_BATCH = 10_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void indexVersusLikeQuery(int catalogSize) {
+        List<ProductResponse> catalog = seedCatalog(catalogSize);
+        productSearchIndex.rebuild(sink -> catalog.forEach(sink));
+
+        for (String query : QUERIES) {
+            long[] likeNanos = time(() -> productRepository.searchProducts(query));
+            long[] indexNanos = time(() -> productSearchIndex.search(query, 0, 100));
+            logger.info("catalog={} query='{}' LIKE p50={}us p99={}us | index p50={}us p99={}us",
+                catalogSize, query,
+                percentile(likeNanos, 50), percentile(likeNanos, 99),
+                percentile(indexNanos, 50), percentile(indexNanos, 99));
+        }
+        assertThat(productSearchIndex.search("laptop", 0, 10)).isNotEmpty();
+    }
+
+    private List<ProductResponse> seedCatalog(int catalogSize) {
+        jdbcTemplate.update("DELETE FROM products");
+        List<ProductResponse> catalog = new ArrayList<>(catalogSize);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long id = 1; id <= catalogSize; id++) {
+            String name = WORDS[(int) (id % WORDS.length)] + " " + (id % 7 == 0 ? "wireless " : "") + "model " + id;
+            String category = WORDS[(int) ((id / 3) % WORDS.length)];
+            String description = "A " + WORDS[(int) ((id * 7) % WORDS.length)] + " accessory";
+            catalog.add(new ProductResponse(id, null, name, description, BigDecimal.TEN, 5, category, null, true));
+            batch.add(new Object[] {id, name, description, BigDecimal.TEN, 5, category, true});
+            if (batch.size() == INSERT_BATCH || id == catalogSize) {
+                jdbcTemplate.batchUpdate(
+                    "INSERT INTO products (id, name, description, price, quantity, category, active) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return catalog;
+    }
+
+    private static long[] time(Supplier<List<?>> search) {
+        // Warm-up before measuring
+        for (int i = 0; i < 5; i++) {
+            search.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            search.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static long percentile(long[] sortedNanos, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000;
+    }
+}
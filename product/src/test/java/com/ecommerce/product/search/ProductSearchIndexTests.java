@@ -0,0 +1,147 @@
+package com.ecommerce.product.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.product.dto.ProductResponse;
+
+/**
+ * Tokenizing, prefix matching, ranking and paging of the in-memory search index, and
+ * writes made while a rebuild is running.
+ */
+class ProductSearchIndexTests {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Test
+    void tokensAreLowercasedAndSplitOnNonAlphanumerics() {
+        assertThat(ProductSearchIndex.tokenize("Wireless-Mouse, 2.4GHz  USB"))
+            .containsExactly("wireless", "mouse", "2", "4ghz", "usb");
+        assertThat(ProductSearchIndex.tokenize("Ärger Café")).containsExactly("ärger", "café");
+        assertThat(ProductSearchIndex.tokenize("  -- ")).isEmpty();
+        assertThat(ProductSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void queryTokensMatchAsPrefixesAndMustAllMatch() {
+        index.index(product(1L, "Gaming Laptop", "computers", null));
+        index.index(product(2L, "Laptop Stand", "accessories", null));
+        index.index(product(3L, "Desk Lamp", "lighting", null));
+
+        assertThat(ids(index.search("LAP", 0, 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.search("lap gam", 0, 10))).containsExactly(1L);
+        assertThat(ids(index.search("laptop lamp", 0, 10))).isEmpty();
+        assertThat(index.search("   ", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void resultsAreRankedByFieldWeightAndExactMatch() {
+        index.index(product(1L, "Bag", "travel", "Fits a laptop"));   // description, exact: 2
+        index.index(product(2L, "Sleeve", "laptop", null));           // category, exact: 4
+        index.index(product(3L, "Laptops Pack", "bundles", null));    // name, prefix: 3
+        index.index(product(4L, "Laptop", "computers", null));        // name, exact: 6
+        index.index(product(5L, "Case", "laptop", null));             // ties with 2, higher id
+
+        assertThat(ids(index.search("laptop", 0, 10))).containsExactly(4L, 2L, 5L, 3L, 1L);
+    }
+
+    @Test
+    void pagesAreBoundedAndOutOfRangePagesAreEmpty() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(product(id, "Cable " + id, "cables", null));
+        }
+
+        assertThat(ids(index.search("cable", 0, 2))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("cable", 2, 2))).containsExactly(5L);
+        assertThat(index.search("cable", 3, 2)).isEmpty();
+        assertThat(index.search("cable", -1, 2)).isEmpty();
+        assertThat(index.search("cable", 0, 0)).isEmpty();
+        assertThat(index.search("cable", 0, -5)).isEmpty();
+    }
+
+    @Test
+    void indexAndRemoveUpdateTheResults() {
+        index.index(product(1L, "Phone", "mobile", null));
+        assertThat(ids(index.search("phone", 0, 10))).containsExactly(1L);
+
+        // Re-indexing replaces the old terms
+        index.index(product(1L, "Tablet", "mobile", null));
+        assertThat(index.search("phone", 0, 10)).isEmpty();
+        assertThat(ids(index.search("tablet", 0, 10))).containsExactly(1L);
+
+        // Out of stock stays indexed but is not returned
+        index.index(product(1L, "Tablet", "mobile", null, 0, true));
+        assertThat(index.search("tablet", 0, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+
+        // Inactive products leave the index
+        index.index(product(1L, "Tablet", "mobile", null, 5, false));
+        assertThat(index.size()).isZero();
+
+        index.index(product(2L, "Tablet", "mobile", null));
+        index.remove(2L);
+        assertThat(index.search("tablet", 0, 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void writesDuringRebuildAreKeptAndSearchesSeeThePreviousIndex() {
+        index.rebuild(sink -> {
+            sink.accept(product(1L, "Old Monitor", "displays", null));
+            sink.accept(product(2L, "Old Keyboard", "input", null));
+        });
+        assertThat(index.isReady()).isTrue();
+
+        index.rebuild(sink -> {
+            // The live index keeps serving until the swap
+            assertThat(ids(index.search("old", 0, 10))).containsExactly(1L, 2L);
+
+            // Written after the source read these rows, so newer than what it pushes
+            index.index(product(1L, "New Monitor", "displays", null));
+            index.remove(2L);
+            index.index(product(3L, "New Mouse", "input", null));
+
+            sink.accept(product(1L, "Old Monitor", "displays", null));
+            sink.accept(product(2L, "Old Keyboard", "input", null));
+        });
+
+        assertThat(index.search("old", 0, 10)).isEmpty();
+        assertThat(ids(index.search("new", 0, 10))).containsExactly(1L, 3L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void failedRebuildKeepsThePreviousIndex() {
+        index.index(product(1L, "Printer", "office", null));
+
+        try {
+            index.rebuild(sink -> {
+                sink.accept(product(2L, "Scanner", "office", null));
+                throw new IllegalStateException("source failed");
+            });
+        } catch (IllegalStateException expected) {
+            // The caller sees the failure
+        }
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(ids(index.search("office", 0, 10))).containsExactly(1L);
+    }
+
+    private static ProductResponse product(Long id, String name, String category, String description) {
+        return product(id, name, category, description, 5, true);
+    }
+
+    private static ProductResponse product(Long id, String name, String category, String description,
+                                           int quantity, boolean active) {
+        return new ProductResponse(id, "sku-" + id, name, description, BigDecimal.TEN, quantity,
+            category, null, active);
+    }
+
+    private static List<Long> ids(List<ProductResponse> products) {
+        return products.stream().map(ProductResponse::getId).toList();
+    }
+}
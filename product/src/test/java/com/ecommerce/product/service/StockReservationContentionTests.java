@@ -0,0 +1,164 @@
+package com.ecommerce.product.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.product.cache.ProductCatalogCache;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.dto.ReservationItem;
+import com.ecommerce.product.dto.StockReservationResponse;
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.search.ProductSearchIndex;
+import com.ecommerce.product.search.SearchIndexRefresher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Many threads reserving the same hot product: exactly as many reservations as
+ * there is stock succeed, the quantity ends at zero and never goes negative, the
+ * sold-out product leaves the search index, and releasing every reservation
+ * restores it.
+ *
+ * The reservations-per-second log is opt-in:
+ * mvn test -Dbenchmark=true -Dtest=StockReservationContentionTests
+ */
+@DataJpaTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "spring.datasource.url=jdbc:h2:mem:stock;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StockReservationService.class, ProductService.class, ProductCatalogCache.class, ProductSearchIndex.class,
+        SearchIndexRefresher.class, StockReservationContentionTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationContentionTests {
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationContentionTests.class);
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private SearchIndexRefresher searchIndexRefresher;
+
+    @Test
+    void hotProductNeverOversells() throws Exception {
+        Long productId = hotProduct("oversell", 50);
+
+        Contention contention = reserveConcurrently(productId, 8, 200);
+
+        assertThat(contention.reserved()).hasSize(50);
+        assertThat(quantity(productId)).isZero();
+        assertThat(contention.minimumSeen()).isGreaterThanOrEqualTo(0);
+        searchIndexRefresher.drain();
+        assertThat(searchIds("oversell")).doesNotContain(productId);
+
+        contention.reserved().forEach(stockReservationService::release);
+        assertThat(quantity(productId)).isEqualTo(50);
+        searchIndexRefresher.drain();
+        assertThat(searchIds("oversell")).contains(productId);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {8, 64})
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void reservationThroughput(int threads) throws Exception {
+        int stock = 200;
+        int attempts = 1_000;
+        Long productId = hotProduct("throughput", stock);
+
+        long begin = System.nanoTime();
+        Contention contention = reserveConcurrently(productId, threads, attempts);
+        long elapsedNanos = System.nanoTime() - begin;
+
+        assertThat(contention.reserved()).hasSize(stock);
+        logger.info("threads={} attempts={} reserved={} reservations/s={}",
+            threads, attempts, contention.reserved().size(), attempts * 1_000_000_000L / Math.max(elapsedNanos, 1));
+        contention.reserved().forEach(stockReservationService::release);
+    }
+
+    private Long hotProduct(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setQuantity(stock);
+        Long productId = productRepository.save(product).getId();
+        productSearchIndex.index(new ProductResponse(productId, null, name, null, BigDecimal.TEN, stock, null, null, true));
+        return productId;
+    }
+
+    private Contention reserveConcurrently(Long productId, int threads, int attempts) throws Exception {
+        AtomicInteger minimumSeen = new AtomicInteger(Integer.MAX_VALUE);
+        ConcurrentLinkedQueue<String> reserved = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                Optional<StockReservationResponse> reservation =
+                        stockReservationService.reserve(null, List.of(new ReservationItem(productId, 1)));
+                reservation.ifPresent(response -> reserved.add(response.getId()));
+                minimumSeen.accumulateAndGet(quantity(productId), Math::min);
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        return new Contention(reserved, minimumSeen.get());
+    }
+
+    private List<Long> searchIds(String query) {
+        return productSearchIndex.search(query, 0, 10).stream().map(ProductResponse::getId).toList();
+    }
+
+    private int quantity(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getQuantity();
+    }
+
+    private record Contention(ConcurrentLinkedQueue<String> reserved, int minimumSeen) {
+    }
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -1,32 +1,90 @@
 package com.ecommerce.user.controller;
 
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import com.ecommerce.user.dto.UserPage;
 import com.ecommerce.user.dto.UserRequest;
 import com.ecommerce.user.dto.UserResponse;
+import com.ecommerce.user.dto.UserSummary;
 
 import com.ecommerce.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.RequiredArgsConstructor;
 
 @RestController
 @RequestMapping("/api/users")  // Base URL
 @RequiredArgsConstructor
 public class UserController {
+    private static final String NDJSON = "application/x-ndjson";
+    
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    
+    // Get a page of users - returns 200 OK, or 400 for a bad cursor
+    // Resolves to /api/users?cursor={nextCursor}&size={n}
+    @GetMapping
+    public ResponseEntity<UserPage> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return userService.fetchUserPage(cursor, size)
+                          .map(ResponseEntity::ok)
+                          .orElse(ResponseEntity.badRequest().build());
+    }
+    
+    // Stream all users - one JSON object per line, written as documents are read
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(UserResponse.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                userService.streamUsers(user -> {
+                    try {
+                        writer.write(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+    
+    // Get many users by id - returns 200 OK (unknown ids are omitted)
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserResponse>> getUsersByIds(@RequestBody List<String> ids) {
+        if (ids.size() > UserService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.fetchUsers(ids));
+    }
     
-    // Get all users - returns 200 OK
-    @GetMapping  // Resolves to /api/users
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        return ResponseEntity.ok(userService.fetchAllUsers());
+    // Get id and role of many users - returns 200 OK (unknown ids are omitted)
+    @PostMapping("/batch/summary")
+    public ResponseEntity<List<UserSummary>> getUserSummaries(@RequestBody List<String> ids) {
+        if (ids.size() > UserService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.fetchUserSummaries(ids));
     }
     
     // Get single user - returns 200 OK or 404 NOT_FOUND
@@ -37,6 +95,22 @@ public class UserController {
                           .orElse(ResponseEntity.notFound().build());
     }
     
+    // Check a user exists - returns 200 OK or 404 NOT_FOUND with no body
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> userExists(@PathVariable String id) {
+        return userService.userExists(id)
+                          ? ResponseEntity.ok().build()
+                          : ResponseEntity.notFound().build();
+    }
+    
+    // Get id and role of a single user - returns 200 OK or 404 NOT_FOUND
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<UserSummary> getUserSummary(@PathVariable String id) {
+        return userService.fetchUserSummary(id)
+                          .map(ResponseEntity::ok)
+                          .orElse(ResponseEntity.notFound().build());
+    }
+    
     // Create user - returns 200 OK (or 201 CREATED)
     @PostMapping
     public ResponseEntity<String> createUser(@RequestBody  UserRequest request) {
@@ -57,4 +131,10 @@ public class UserController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+    
+    // Unique email index rejected a create or update - returns 409 CONFLICT
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<String> handleDuplicateEmail() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Email already registered");
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPage {
+    private List<UserResponse> items;
+    private String nextCursor;    // Pass as ?cursor= to fetch the next page; null on the last page
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.user.dto;
+
+import com.ecommerce.user.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Projection for callers that only check a user exists or its role:
+// MongoDB returns just these fields, not the whole document
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private String id;
+    private UserRole role;
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.user.filter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filter over user ids, so most checks for a user that does not exist
+ * are answered without a MongoDB query.
+ *
+ * A bloom filter can say "maybe" for an id it never saw, but never "no" for an id
+ * it did see. Ids are added when the filter is rebuilt at startup (see
+ * UserIdFilterInitializer) and by UserService.addUser. Users created by another
+ * instance after the rebuild are not in this instance's filter. So "no" only counts
+ * for ObjectIds whose embedded creation time is older than the rebuild, less
+ * user.id-filter.clock-skew. Every other id still goes to MongoDB.
+ *
+ * Users are never deleted, so ids never have to be removed.
+ */
+@Component
+public class UserIdFilter {
+    private static final Logger logger = LoggerFactory.getLogger(UserIdFilter.class);
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final Duration clockSkew;
+
+    // Creation time (epoch seconds) up to which the filter holds every id; -1 until built
+    private volatile long coveredUpTo = -1;
+
+    public UserIdFilter(
+            @Value("${user.id-filter.expected-users:1000000}") long expectedUsers,
+            @Value("${user.id-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${user.id-filter.clock-skew:60s}") Duration clockSkew) {
+        // Standard sizing: m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 hash functions
+        long optimalBits = (long) Math.ceil(-expectedUsers * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Math.max((optimalBits + 63) / 64, 1), Integer.MAX_VALUE - 8);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedUsers * Math.log(2)));
+        this.clockSkew = clockSkew;
+    }
+
+    public void add(String id) {
+        long hash1 = hash(id, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(id, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0
+                    && !bits.compareAndSet(word, current, current | mask)) {
+                // Another add set a bit in the same word; retry
+            }
+        }
+    }
+
+    public boolean mightContain(String id) {
+        long hash1 = hash(id, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(id, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // True only when the user certainly does not exist; false means ask MongoDB
+    public boolean definitelyAbsent(String id) {
+        long covered = coveredUpTo;
+        if (covered < 0 || !ObjectId.isValid(id) || mightContain(id)) {
+            return false;
+        }
+        return new ObjectId(id).getTimestamp() <= covered;
+    }
+
+    // Adds every id the source supplies. Bits are only ever set, so concurrent
+    // add calls during the rebuild are kept
+    public void rebuild(Consumer<Consumer<String>> source) {
+        long start = System.nanoTime();
+        long covered = Instant.now().minus(clockSkew).getEpochSecond();
+        long[] count = new long[1];
+        source.accept(id -> {
+            add(id);
+            count[0]++;
+        });
+        coveredUpTo = covered;
+        logger.info("User id filter built: ids={}, bits={}, hashes={}, took={}ms",
+            count[0], bitCount, hashCount, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // 64-bit FNV-1a over the chars, finished with the SplitMix64 mixer
+    private static long hash(String id, long seed) {
+        long hash = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
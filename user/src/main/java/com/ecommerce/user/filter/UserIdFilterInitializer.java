@@ -0,0 +1,24 @@
+package com.ecommerce.user.filter;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import lombok.RequiredArgsConstructor;
+
+import com.ecommerce.user.service.UserService;
+
+/**
+ * Loads every user id into the filter once the application has started.
+ * Until it finishes, UserService answers existence checks from MongoDB.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserIdFilterInitializer {
+    private final UserIdFilter userIdFilter;
+    private final UserService userService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildFilter() {
+        userIdFilter.rebuild(userService::streamUserIds);
+    }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.user.model;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 import lombok.AllArgsConstructor;
@@ -21,7 +22,12 @@ public class User {
     
     private String firstName;
     private String lastName;
+    
+    // Unique index built at startup (spring.data.mongodb.auto-index-creation);
+    // sparse, so users without an email do not collide on null
+    @Indexed(name = "uk_users_email", unique = true, sparse = true)
     private String email;
+    
     private String phone;
     
     private UserRole role = UserRole.CUSTOMER;
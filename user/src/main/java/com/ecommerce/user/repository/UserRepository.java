@@ -1,11 +1,40 @@
 package com.ecommerce.user.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
+import com.ecommerce.user.dto.UserSummary;
 import com.ecommerce.user.model.User;
 
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
+    
+    // Batch lookup: one { _id: { $in: [...] } } query
+    List<User> findByIdIn(Collection<String> ids);
+    
+    // Summary projections: only _id and role are read from the document
+    Optional<UserSummary> findSummaryById(String id);
+    
+    List<UserSummary> findSummariesByIdIn(Collection<String> ids);
+    
+    // Keyset pagination on _id: { _id: { $gt: cursor } } sorted by _id, served by the _id index
+    List<User> findByOrderByIdAsc(Limit limit);
+    
+    List<User> findByIdGreaterThanOrderByIdAsc(String cursor, Limit limit);
+    
+    // Whole collection read through a server-side cursor instead of one big list
+    Stream<User> streamAllByOrderByIdAsc();
+    
+    // Only _id of every user, for rebuilding UserIdFilter
+    @Query(value = "{}", fields = "{ '_id': 1 }")
+    Stream<User> streamIdsBy();
+    
     // All CRUD methods are automatically available:
     // - save(User user)
     // - findById(String id)
@@ -14,4 +43,4 @@ public interface UserRepository extends MongoRepository<User, String> {
     // - count()
     // - existsById(String id)
     // - And many more!
-}
\ No newline at end of file
+}
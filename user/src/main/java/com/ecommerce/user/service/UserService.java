@@ -1,40 +1,122 @@
 package com.ecommerce.user.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 
+import io.micrometer.core.annotation.Timed;
+
 import com.ecommerce.user.model.User;
 import com.ecommerce.user.model.Address;
+import com.ecommerce.user.dto.UserPage;
 import com.ecommerce.user.dto.UserRequest;
 import com.ecommerce.user.dto.UserResponse;
+import com.ecommerce.user.dto.UserSummary;
 import com.ecommerce.user.dto.AddressDTO;
+import com.ecommerce.user.filter.UserIdFilter;
 import com.ecommerce.user.repository.UserRepository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    public static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 500;
+    
     private final UserRepository userRepository;
+    private final UserIdFilter userIdFilter;
+    private final MeterRegistry meterRegistry;
+    
+    // Get one keyset page of users in _id order, starting after the cursor id.
+    // Empty when the cursor is not a user id
+    public Optional<UserPage> fetchUserPage(String cursor, int size) {
+        if (cursor != null && !ObjectId.isValid(cursor)) {
+            return Optional.empty();
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // Fetch one extra document to know whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<User> users = cursor == null
+                ? userRepository.findByOrderByIdAsc(limit)
+                : userRepository.findByIdGreaterThanOrderByIdAsc(cursor, limit);
+        
+        boolean hasMore = users.size() > pageSize;
+        List<UserResponse> items = users.stream()
+                .limit(pageSize)
+                .map(this::mapToUserResponse)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return Optional.of(new UserPage(items, nextCursor));
+    }
+    
+    // Stream all users document by document from the MongoDB cursor without building a list
+    public void streamUsers(Consumer<UserResponse> sink) {
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            users.map(this::mapToUserResponse).forEach(sink);
+        }
+    }
     
-    // Return DTOs instead of entities
-    public List<UserResponse> fetchAllUsers() {
-        return userRepository.findAll()
+    // Batch lookup in one $in query; unknown ids are simply missing from the list
+    public List<UserResponse> fetchUsers(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findByIdIn(ids)
                             .stream()
-                            .map(this::mapToUserResponse)  // Convert Entity → DTO
+                            .map(this::mapToUserResponse)
                             .collect(Collectors.toList());
     }
     
+    // Id and role only, for existence and role checks
+    public Optional<UserSummary> fetchUserSummary(String id) {
+        return userRepository.findSummaryById(id);
+    }
+    
+    public List<UserSummary> fetchUserSummaries(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findSummariesByIdIn(ids);
+    }
+    
     // Accept DTO, convert to Entity, save
     public void addUser(UserRequest request) {
         User user = new User();
         updateUserFromRequest(user, request);
-        userRepository.save(user);
+        userIdFilter.add(userRepository.save(user).getId());
+    }
+    
+    // Existence check: answered from UserIdFilter when it can rule the id out,
+    // otherwise by an _id lookup that reads no document
+    public boolean userExists(String id) {
+        if (userIdFilter.definitelyAbsent(id)) {
+            countExistsCheck("filtered");
+            return false;
+        }
+        boolean exists = userRepository.existsById(id);
+        countExistsCheck(exists ? "found" : "not_found");
+        return exists;
+    }
+    
+    // Every user id, read through a cursor with only _id projected
+    public void streamUserIds(Consumer<String> sink) {
+        try (Stream<User> users = userRepository.streamIdsBy()) {
+            users.forEach(user -> sink.accept(user.getId()));
+        }
     }
     
     // Return DTO instead of Entity
+    @Timed(value = "user.fetch", description = "Time to look up a user by id")
     public Optional<UserResponse> fetchUser(String id) {
         return userRepository.findById(id)
                             .map(this::mapToUserResponse);  // Convert Entity → DTO
@@ -51,6 +133,13 @@ public class UserService {
                             .orElse(false);
     }
     
+    private void countExistsCheck(String result) {
+        Counter.builder("user.exists")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+    
     // Mapping: Entity → DTO
     private UserResponse mapToUserResponse(User user) {
         UserResponse response = new UserResponse();
@@ -0,0 +1,98 @@
+package com.ecommerce.user.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bloom filter guarantees: no false "absent" for added ids, and only ObjectIds
+ * created before the rebuild can be answered without MongoDB.
+ */
+class UserIdFilterTests {
+    private static final int EXPECTED_USERS = 20_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    private final UserIdFilter filter = new UserIdFilter(EXPECTED_USERS, FALSE_POSITIVE_RATE, CLOCK_SKEW);
+
+    @Test
+    void addedIdsAreNeverReportedAbsent() {
+        List<String> ids = oldIds(EXPECTED_USERS);
+        filter.rebuild(sink -> ids.subList(0, EXPECTED_USERS / 2).forEach(sink));
+        // Added after the rebuild, like UserService.addUser
+        ids.subList(EXPECTED_USERS / 2, EXPECTED_USERS).forEach(filter::add);
+
+        for (String id : ids) {
+            assertThat(filter.mightContain(id)).as(id).isTrue();
+            assertThat(filter.definitelyAbsent(id)).as(id).isFalse();
+        }
+    }
+
+    @Test
+    void unknownOldObjectIdIsAbsentOnlyOnceTheFilterIsBuilt() {
+        String id = new ObjectId(Date.from(Instant.now().minus(Duration.ofHours(1)))).toHexString();
+
+        assertThat(filter.definitelyAbsent(id)).isFalse();
+
+        filter.rebuild(sink -> { });
+        assertThat(filter.definitelyAbsent(id)).isTrue();
+    }
+
+    @Test
+    void objectIdsNewerThanTheRebuildAlwaysGoToMongo() {
+        filter.rebuild(sink -> { });
+
+        // Created by another instance after the rebuild, or within the clock skew before it
+        String justNow = new ObjectId().toHexString();
+        String withinSkew = new ObjectId(Date.from(Instant.now().minus(CLOCK_SKEW).plusSeconds(5))).toHexString();
+        String future = new ObjectId(Date.from(Instant.now().plus(Duration.ofMinutes(5)))).toHexString();
+
+        assertThat(filter.definitelyAbsent(justNow)).isFalse();
+        assertThat(filter.definitelyAbsent(withinSkew)).isFalse();
+        assertThat(filter.definitelyAbsent(future)).isFalse();
+    }
+
+    @Test
+    void idsThatAreNotObjectIdsAlwaysGoToMongo() {
+        filter.rebuild(sink -> { });
+
+        assertThat(filter.definitelyAbsent("alice")).isFalse();
+        assertThat(filter.definitelyAbsent("")).isFalse();
+        assertThat(filter.definitelyAbsent("12345")).isFalse();
+        assertThat(filter.definitelyAbsent("zzzzzzzzzzzzzzzzzzzzzzzz")).isFalse();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRateAtExpectedUsers() {
+        List<String> added = oldIds(EXPECTED_USERS);
+        filter.rebuild(sink -> added.forEach(sink));
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (String id : oldIds(probes)) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        // Sized for 1%; allow sampling noise but catch a broken hash or sizing
+        assertThat((double) falsePositives / probes).isLessThan(FALSE_POSITIVE_RATE * 2);
+    }
+
+    // Distinct ObjectIds created well before any rebuild in these tests
+    private static List<String> oldIds(int count) {
+        Date created = Date.from(Instant.now().minus(Duration.ofDays(1)));
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(new ObjectId(created).toHexString());
+        }
+        return ids;
+    }
+}